@@ -0,0 +1,166 @@
+package junit.extensions;
+
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestResult;
+import junit.framework.TestSuite;
+
+/**
+ * A TestSuite for active Tests, like {@link ActiveTestSuite}, that runs its
+ * tests on a fixed number of threads instead of one thread per test. At most
+ * as many tests as there are threads are handed out at a time: the suite waits
+ * for a free thread before it hands out the next one, and stops handing them
+ * out as soon as the {@link TestResult} is asked to stop.
+ *
+ * After a run, {@link #getBusyTimes()} tells how long each thread spent
+ * running tests.
+ */
+public class PooledActiveTestSuite extends TestSuite {
+	private final int fParallelism;
+
+	// Nanoseconds each thread of the last run spent running tests
+	private final Map<String, Long> fBusyNanos= new HashMap<String, Long>();
+
+	/**
+	 * @param parallelism the number of threads running tests
+	 */
+	public PooledActiveTestSuite(int parallelism) {
+		fParallelism= checkParallelism(parallelism);
+	}
+
+	public PooledActiveTestSuite(Class<? extends TestCase> theClass, int parallelism) {
+		super(theClass);
+		fParallelism= checkParallelism(parallelism);
+	}
+
+	public PooledActiveTestSuite(String name, int parallelism) {
+		super(name);
+		fParallelism= checkParallelism(parallelism);
+	}
+
+	private static int checkParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		return parallelism;
+	}
+
+	/**
+	 * Returns the number of threads running tests
+	 */
+	public int getParallelism() {
+		return fParallelism;
+	}
+
+	/**
+	 * Returns, for each thread of the last run, the number of milliseconds it
+	 * spent running tests
+	 */
+	public synchronized Map<String, Long> getBusyTimes() {
+		Map<String, Long> result= new HashMap<String, Long>();
+		for (Map.Entry<String, Long> each : fBusyNanos.entrySet())
+			result.put(each.getKey(), each.getValue() / 1000000);
+		return result;
+	}
+
+	/**
+	 * Hands out the tests to the threads. If the calling thread is interrupted
+	 * while it waits for a free thread, the tests not handed out yet are
+	 * reported as errors.
+	 */
+	@Override
+	public void run(TestResult result) {
+		synchronized (this) {
+			fBusyNanos.clear();
+		}
+		Semaphore freeThreads= new Semaphore(fParallelism);
+		ExecutorService pool= Executors.newFixedThreadPool(fParallelism,
+				new WorkerThreadFactory(getName()));
+		try {
+			Enumeration<Test> tests= tests();
+			while (tests.hasMoreElements() && !result.shouldStop()) {
+				Test test= tests.nextElement();
+				try {
+					freeThreads.acquire();
+				} catch (InterruptedException e) {
+					result.addError(test, e);
+					while (tests.hasMoreElements())
+						result.addError(tests.nextElement(), e);
+					Thread.currentThread().interrupt();
+					break;
+				}
+				pool.execute(new Worker(test, result, freeThreads));
+			}
+		} finally {
+			waitUntilFinished(pool);
+		}
+	}
+
+	private synchronized void addBusyTime(long nanos) {
+		String thread= Thread.currentThread().getName();
+		Long busy= fBusyNanos.get(thread);
+		fBusyNanos.put(thread, (busy == null ? 0 : busy) + nanos);
+	}
+
+	private void waitUntilFinished(ExecutorService pool) {
+		pool.shutdown();
+		try {
+			while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+				// keep waiting
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt(); // ignore, as ActiveTestSuite does
+		}
+	}
+
+	private class Worker implements Runnable {
+		private final Test fTest;
+
+		private final TestResult fResult;
+
+		private final Semaphore fFreeThreads;
+
+		Worker(Test test, TestResult result, Semaphore freeThreads) {
+			fTest= test;
+			fResult= result;
+			fFreeThreads= freeThreads;
+		}
+
+		public void run() {
+			long start= System.nanoTime();
+			try {
+				if (!fResult.shouldStop())
+					fTest.run(fResult);
+			} finally {
+				addBusyTime(System.nanoTime() - start);
+				fFreeThreads.release();
+			}
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+		private final AtomicInteger fThreadNumber= new AtomicInteger(1);
+
+		private final String fSuiteName;
+
+		WorkerThreadFactory(String suiteName) {
+			fSuiteName= suiteName;
+		}
+
+		public Thread newThread(Runnable r) {
+			Thread thread= new Thread(r, "PooledActiveTestSuite-" + fSuiteName + "-"
+					+ fThreadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package junit.framework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A <code>TestResult</code> for tests running on many threads at once, for
+ * example in an {@link junit.extensions.ActiveTestSuite}. Where
+ * <code>TestResult</code> takes one lock for every event, this one counts run
+ * tests on a counter per thread group, collects failures and errors in
+ * lock-free queues and only copies its listeners when they change.
+ *
+ * The protected fields <code>fFailures</code>, <code>fErrors</code> and
+ * <code>fRunTests</code> of <code>TestResult</code> are not used: use
+ * {@link #failures()}, {@link #errors()} and {@link #runCount()} instead.
+ *
+ * @see TestResult
+ */
+public class ConcurrentTestResult extends TestResult {
+	private final Queue<TestFailure> fFailureQueue= new ConcurrentLinkedQueue<TestFailure>();
+	private final Queue<TestFailure> fErrorQueue= new ConcurrentLinkedQueue<TestFailure>();
+	private final AtomicInteger fFailureCount= new AtomicInteger();
+	private final AtomicInteger fErrorCount= new AtomicInteger();
+	private final StripedCounter fRunCount= new StripedCounter();
+	private volatile boolean fStopRequested= false;
+
+	public ConcurrentTestResult() {
+		fListeners= new CopyOnWriteArrayList<TestListener>();
+	}
+
+	@Override
+	public void addError(Test test, Throwable t) {
+		fErrorQueue.add(new TestFailure(test, t));
+		fErrorCount.incrementAndGet();
+		for (TestListener each : fListeners)
+			each.addError(test, t);
+	}
+
+	@Override
+	public void addFailure(Test test, AssertionFailedError t) {
+		fFailureQueue.add(new TestFailure(test, t));
+		fFailureCount.incrementAndGet();
+		for (TestListener each : fListeners)
+			each.addFailure(test, t);
+	}
+
+	@Override
+	public void addListener(TestListener listener) {
+		fListeners.add(listener);
+	}
+
+	@Override
+	public void removeListener(TestListener listener) {
+		fListeners.remove(listener);
+	}
+
+	@Override
+	public void endTest(Test test) {
+		for (TestListener each : fListeners)
+			each.endTest(test);
+	}
+
+	@Override
+	public int errorCount() {
+		return fErrorCount.get();
+	}
+
+	@Override
+	public Enumeration<TestFailure> errors() {
+		return Collections.enumeration(new ArrayList<TestFailure>(fErrorQueue));
+	}
+
+	@Override
+	public int failureCount() {
+		return fFailureCount.get();
+	}
+
+	@Override
+	public Enumeration<TestFailure> failures() {
+		return Collections.enumeration(new ArrayList<TestFailure>(fFailureQueue));
+	}
+
+	@Override
+	public int runCount() {
+		return fRunCount.sum();
+	}
+
+	@Override
+	public boolean shouldStop() {
+		return fStopRequested;
+	}
+
+	@Override
+	public void startTest(Test test) {
+		fRunCount.add(test.countTestCases());
+		for (TestListener each : fListeners)
+			each.startTest(test);
+	}
+
+	@Override
+	public void stop() {
+		fStopRequested= true;
+	}
+
+	@Override
+	public boolean wasSuccessful() {
+		return failureCount() == 0 && errorCount() == 0;
+	}
+
+	/**
+	 * A counter spread over cells picked by thread id, so that threads
+	 * counting at the same time seldom touch the same cache line.
+	 */
+	private static class StripedCounter {
+		private static final int STRIPES= 16;
+		// ints per cell, keeping cells on separate 64 byte cache lines
+		private static final int PADDING= 16;
+
+		private final AtomicIntegerArray fCells= new AtomicIntegerArray(STRIPES * PADDING);
+
+		void add(int delta) {
+			int stripe= (int) (Thread.currentThread().getId() % STRIPES);
+			fCells.addAndGet(stripe * PADDING, delta);
+		}
+
+		int sum() {
+			int sum= 0;
+			for (int i= 0; i < STRIPES; i++)
+				sum+= fCells.get(i * PADDING);
+			return sum;
+		}
+	}
+}
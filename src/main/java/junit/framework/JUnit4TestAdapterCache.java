@@ -25,9 +25,12 @@ public class JUnit4TestAdapterCache extends HashMap<Description, Test> {
 		if (description.isSuite())
 			return createTest(description);
 		else {
-			if (!containsKey(description))
-				put(description, createTest(description));
-			return get(description);
+			Test test= get(description);
+			if (test == null) {
+				test= createTest(description);
+				put(description, test);
+			}
+			return test;
 		}
 	}
 
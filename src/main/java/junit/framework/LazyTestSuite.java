@@ -0,0 +1,102 @@
+package junit.framework;
+
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+
+/**
+ * A <code>TestSuite</code> that does not create its test cases up front. Where
+ * <code>TestSuite(Class)</code> creates one <code>TestCase</code> per test
+ * method while the suite is built, a <code>LazyTestSuite</code> only keeps
+ * the class and the name of each method. Each <code>TestCase</code> is created
+ * just before it runs and dropped as soon as it has run, so a suite of many
+ * thousands of tests never holds more than the few that are running.
+ * <pre>
+ * TestSuite suite= new LazyTestSuite();
+ * suite.addTestSuite(MathTest.class);
+ * suite.addTestSuite(AnotherTest.class);
+ * </pre>
+ *
+ * Listeners are told about the <code>TestCase</code> that actually runs.
+ * Since it only exists while running, a class whose constructor fails is
+ * reported when its tests run, not when the suite is built.
+ *
+ * @see TestSuite
+ */
+public class LazyTestSuite extends TestSuite {
+	/**
+	 * Constructs an empty LazyTestSuite.
+	 */
+	public LazyTestSuite() {
+	}
+
+	/**
+	 * Constructs a LazyTestSuite from the given class. Adds all the methods
+	 * starting with "test" as tests to the suite.
+	 * @see TestSuite#TestSuite(Class)
+	 */
+	public LazyTestSuite(Class<?> theClass) {
+		super(theClass);
+	}
+
+	/**
+	 * Constructs an empty LazyTestSuite.
+	 */
+	public LazyTestSuite(String name) {
+		super(name);
+	}
+
+	/**
+	 * Constructs a LazyTestSuite from the given array of classes.
+	 * @param classes {@link TestCase}s
+	 */
+	public LazyTestSuite(Class<?>... classes) {
+		for (Class<?> each : classes)
+			if (TestCase.class.isAssignableFrom(each))
+				addTest(new LazyTestSuite(each));
+			else
+				addTest(warning(each.getCanonicalName() + " does not extend TestCase"));
+	}
+
+	/**
+	 * Adds the tests from the given class to the suite, created lazily
+	 */
+	@Override
+	public void addTestSuite(Class<? extends TestCase> testClass) {
+		addTest(new LazyTestSuite(testClass));
+	}
+
+	@Override
+	Test createTestFor(Class<?> theClass, String name) {
+		return new LazyTest(theClass, name);
+	}
+
+	/**
+	 * Stands in for a test case until it runs.
+	 */
+	private static class LazyTest implements Test, Describable {
+		private final Class<?> fClass;
+		private final String fName;
+
+		LazyTest(Class<?> theClass, String name) {
+			fClass= theClass;
+			fName= name;
+		}
+
+		public int countTestCases() {
+			return 1;
+		}
+
+		public void run(TestResult result) {
+			createTest(fClass, fName).run(result);
+		}
+
+		public Description getDescription() {
+			return Description.createTestDescription(fClass, fName);
+		}
+
+		@Override
+		public String toString() {
+			return fName + "(" + fClass.getName() + ")";
+		}
+	}
+}
@@ -291,7 +291,14 @@ public class TestSuite implements Test {
 			return;
 		}
 		names.add(name);
-		addTest(createTest(theClass, name));
+		addTest(createTestFor(theClass, name));
+	}
+
+	/**
+	 * Creates the test for one test method while the suite is being built.
+	 */
+	Test createTestFor(Class<?> theClass, String name) {
+		return createTest(theClass, name);
 	}
 
 	private boolean isPublicTestMethod(Method m) {
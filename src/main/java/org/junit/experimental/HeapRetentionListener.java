@@ -0,0 +1,126 @@
+package org.junit.experimental;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Finds the tests that leave large object graphs behind. Before each test
+ * starts, and when the run finishes, this listener collects garbage and
+ * measures the heap: whatever the heap grew by since the previous test
+ * started is still reachable, so it is charged to that test. Tests that left
+ * at least {@code thresholdBytes} behind are reported.
+ *
+ * Collecting garbage around every test makes runs much slower, so this is a
+ * diagnostic for hunting memory leaks, not something to leave on. Measurements
+ * are only meaningful when tests run one at a time, and the first tests to
+ * use a class are also charged for what it keeps in static fields.
+ */
+public class HeapRetentionListener extends RunListener {
+	private final long fThreshold;
+
+	private final PrintStream fWriter;
+
+	private final MemoryMXBean fMemory= ManagementFactory.getMemoryMXBean();
+
+	private final Map<Description, Long> fRetained= new HashMap<Description, Long>();
+
+	private Description fPrevious= null;
+
+	private long fBaseline= -1;
+
+	/**
+	 * @param thresholdBytes
+	 *            the number of bytes a test must leave behind to be reported
+	 */
+	public HeapRetentionListener(long thresholdBytes) {
+		this(thresholdBytes, null);
+	}
+
+	/**
+	 * Also prints the tests found to {@code writer} when the run finishes
+	 */
+	public HeapRetentionListener(long thresholdBytes, PrintStream writer) {
+		fThreshold= thresholdBytes;
+		fWriter= writer;
+	}
+
+	@Override
+	public synchronized void testRunStarted(Description description) {
+		fPrevious= null;
+		fBaseline= usedHeapAfterGc();
+	}
+
+	@Override
+	public synchronized void testStarted(Description description) {
+		chargePrevious();
+		fPrevious= description;
+	}
+
+	@Override
+	public void testRunFinished(Result result) {
+		synchronized (this) {
+			chargePrevious();
+		}
+		if (fWriter != null)
+			printRetained(fWriter);
+	}
+
+	/**
+	 * Returns the tests that left at least the threshold behind, with the
+	 * number of bytes each left, largest first
+	 */
+	public synchronized Map<Description, Long> getRetained() {
+		List<Map.Entry<Description, Long>> entries= new ArrayList<Map.Entry<Description, Long>>(
+				fRetained.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<Description, Long>>() {
+			public int compare(Map.Entry<Description, Long> o1,
+					Map.Entry<Description, Long> o2) {
+				return o2.getValue().compareTo(o1.getValue());
+			}
+		});
+		Map<Description, Long> result= new LinkedHashMap<Description, Long>();
+		for (Map.Entry<Description, Long> each : entries)
+			result.put(each.getKey(), each.getValue());
+		return result;
+	}
+
+	/**
+	 * Prints the tests that left at least the threshold behind
+	 */
+	public void printRetained(PrintStream writer) {
+		Map<Description, Long> retained= getRetained();
+		if (retained.isEmpty())
+			return;
+		writer.println("Tests leaving objects behind:");
+		for (Map.Entry<Description, Long> each : retained.entrySet())
+			writer.println(String.format("%10d KB  %s", each.getValue() / 1024,
+					each.getKey()));
+	}
+
+	private void chargePrevious() {
+		long used= usedHeapAfterGc();
+		long retained= used - fBaseline;
+		if (fPrevious != null && fBaseline >= 0 && retained >= fThreshold)
+			fRetained.put(fPrevious, retained);
+		fPrevious= null;
+		fBaseline= used;
+	}
+
+	private long usedHeapAfterGc() {
+		fMemory.gc();
+		fMemory.gc();
+		return fMemory.getHeapMemoryUsage().getUsed();
+	}
+}
@@ -2,26 +2,65 @@ package org.junit.experimental;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.experimental.resources.SharedResources;
 import org.junit.runner.Computer;
 import org.junit.runner.Runner;
+import org.junit.runner.notification.StoppedByUserException;
 import org.junit.runners.ParentRunner;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerBuilder;
 import org.junit.runners.model.RunnerScheduler;
 
+/**
+ * Runs classes and/or methods in parallel. All parallelized runners of a run
+ * share one bounded pool of {@code parallelism} worker threads. A runner
+ * waiting for its children in {@link RunnerScheduler#finished()} does not
+ * block a worker: it runs its own not-yet-started children itself, newest
+ * first, and only waits for children that another thread has already picked
+ * up. Nested suites therefore cannot starve the pool, and the number of
+ * threads running tests never exceeds {@code parallelism} plus the thread that
+ * started the run. When the run is asked to stop, children that have not
+ * started yet are cancelled.
+ *
+ * Tests that declare the same {@link org.junit.experimental.resources.ResourceLock}
+ * do not run at the same time unless they all only read the resource. A class
+ * holds the locks of all its tests from before its {@code @BeforeClass}
+ * methods until after its {@code @AfterClass} methods.
+ */
 public class ParallelComputer extends Computer {
 	private final boolean fClasses;
 
 	private final boolean fMethods;
 
+	private final int fParallelism;
+
+	private final SharedResources fResources= new SharedResources();
+
+	private ExecutorService fPool= null;
+
 	public ParallelComputer(boolean classes, boolean methods) {
+		this(classes, methods, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism
+	 *            the number of worker threads shared by the whole run
+	 */
+	public ParallelComputer(boolean classes, boolean methods, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be positive: "
+					+ parallelism);
 		fClasses= classes;
 		fMethods= methods;
+		fParallelism= parallelism;
 	}
 
 	public static Computer classes() {
@@ -32,33 +71,26 @@ public class ParallelComputer extends Computer {
 		return new ParallelComputer(false, true);
 	}
 
-	private static <T> Runner parallelize(Runner runner) {
-		if (runner instanceof ParentRunner<?>) {
-			((ParentRunner<?>) runner).setScheduler(new RunnerScheduler() {
-				private final List<Future<Object>> fResults= new ArrayList<Future<Object>>();
-
-				private final ExecutorService fService= Executors
-						.newCachedThreadPool();
+	/**
+	 * Returns the number of worker threads shared by the whole run
+	 */
+	public int getParallelism() {
+		return fParallelism;
+	}
 
-				public void schedule(final Runnable childStatement) {
-					fResults.add(fService.submit(new Callable<Object>() {
-						public Object call() throws Exception {
-							childStatement.run();
-							return null;
-						}
-					}));
-				}
+	private Runner parallelize(Runner runner) {
+		if (runner instanceof ParentRunner<?>)
+			((ParentRunner<?>) runner).setScheduler(guard(new JoiningScheduler(
+					false)));
+		return runner;
+	}
 
-				public void finished() {
-					for (Future<Object> each : fResults)
-						try {
-							each.get();
-						} catch (Exception e) {
-							e.printStackTrace();
-						}
-				}
-			});
-		}
+	// Even run one at a time, the tests of a class must take their locks
+	// against the tests of classes running next to it
+	private Runner serialize(Runner runner) {
+		if (runner instanceof ParentRunner<?>)
+			((ParentRunner<?>) runner).setScheduler(guard(new SerialScheduler(
+					false)));
 		return runner;
 	}
 
@@ -66,13 +98,150 @@ public class ParallelComputer extends Computer {
 	public Runner getSuite(RunnerBuilder builder, java.lang.Class<?>[] classes)
 			throws InitializationError {
 		Runner suite= super.getSuite(builder, classes);
-		return fClasses ? parallelize(suite) : suite;
+		// Each class holds its locks throughout, class-level code included
+		if (suite instanceof ParentRunner<?>)
+			((ParentRunner<?>) suite).setScheduler(guardWhole(fClasses
+					? new JoiningScheduler(true)
+					: new SerialScheduler(true)));
+		return suite;
 	}
 
 	@Override
 	protected Runner getRunner(RunnerBuilder builder, Class<?> testClass)
 			throws Throwable {
 		Runner runner= super.getRunner(builder, testClass);
-		return fMethods ? parallelize(runner) : runner;
+		return fMethods ? parallelize(runner) : serialize(runner);
+	}
+
+	/**
+	 * Returns {@code scheduler}, made to run each test holding the
+	 * {@link org.junit.experimental.resources.ResourceLock}s it declares
+	 */
+	RunnerScheduler guard(RunnerScheduler scheduler) {
+		return fResources.guard(scheduler);
+	}
+
+	/**
+	 * Returns {@code scheduler}, made to run each child holding the
+	 * {@link org.junit.experimental.resources.ResourceLock}s of all its tests
+	 */
+	RunnerScheduler guardWhole(RunnerScheduler scheduler) {
+		return fResources.guardWhole(scheduler);
+	}
+
+	private synchronized ExecutorService pool() {
+		if (fPool == null)
+			fPool= Executors.newFixedThreadPool(fParallelism,
+					new WorkerThreadFactory());
+		return fPool;
+	}
+
+	/**
+	 * Called when the outermost suite of a run has finished; releases the
+	 * threads of the run
+	 */
+	synchronized void runFinished() {
+		if (fPool != null)
+			fPool.shutdown();
+		fPool= null;
+	}
+
+	private class JoiningScheduler implements RunnerScheduler {
+		private final List<FutureTask<Object>> fTasks= new ArrayList<FutureTask<Object>>();
+
+		private final boolean fOutermost;
+
+		JoiningScheduler(boolean outermost) {
+			fOutermost= outermost;
+		}
+
+		public void schedule(Runnable childStatement) {
+			FutureTask<Object> task= new FutureTask<Object>(childStatement, null);
+			fTasks.add(task);
+			pool().execute(task);
+		}
+
+		public void finished() {
+			try {
+				// A FutureTask runs at most once, so running a task a worker
+				// has already started (or finished) is a no-op
+				StoppedByUserException stopped= null;
+				for (int i= fTasks.size() - 1; i >= 0; i--) {
+					FutureTask<Object> task= fTasks.get(i);
+					if (stopped == null) {
+						task.run();
+						stopped= stoppedBy(task);
+					} else
+						// Once the run is stopped, children not started yet
+						// never will be
+						task.cancel(false);
+				}
+				for (FutureTask<Object> each : fTasks)
+					try {
+						each.get();
+					} catch (CancellationException e) {
+						// cancelled before it started
+					} catch (ExecutionException e) {
+						if (e.getCause() instanceof StoppedByUserException)
+							stopped= (StoppedByUserException) e.getCause();
+						else
+							e.printStackTrace();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+				if (stopped != null)
+					throw stopped;
+			} finally {
+				fTasks.clear();
+				if (fOutermost)
+					runFinished();
+			}
+		}
+
+		private StoppedByUserException stoppedBy(FutureTask<Object> task) {
+			if (!task.isDone() || task.isCancelled())
+				return null;
+			try {
+				task.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof StoppedByUserException)
+					return (StoppedByUserException) e.getCause();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}
+	}
+
+	private class SerialScheduler implements RunnerScheduler {
+		private final boolean fOutermost;
+
+		SerialScheduler(boolean outermost) {
+			fOutermost= outermost;
+		}
+
+		public void schedule(Runnable childStatement) {
+			childStatement.run();
+		}
+
+		public void finished() {
+			if (fOutermost)
+				runFinished();
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+		private static final AtomicInteger fPoolNumber= new AtomicInteger(1);
+
+		private final AtomicInteger fThreadNumber= new AtomicInteger(1);
+
+		private final String fPrefix= "ParallelComputer-"
+				+ fPoolNumber.getAndIncrement() + "-worker-";
+
+		public Thread newThread(Runnable r) {
+			Thread thread= new Thread(r, fPrefix + fThreadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
 	}
 }
@@ -0,0 +1,168 @@
+package org.junit.experimental;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.junit.runner.Runner;
+import org.junit.runner.notification.StoppedByUserException;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * Runs classes and/or methods in parallel, each child on a virtual thread of
+ * its own, with at most {@code maxConcurrency} children running at once. This
+ * suits tests that spend most of their time blocked on I/O: hundreds can wait
+ * at the same time without tying up a platform thread each. A runner waiting
+ * for its children gives up its place while it waits, so nested suites cannot
+ * use up all of them.
+ *
+ * On JDKs without virtual threads this computer falls back to a
+ * {@link ParallelComputer} with a pool of {@code maxConcurrency} platform
+ * threads; {@link #isSupported()} tells which one is used.
+ */
+public class VirtualThreadComputer extends ParallelComputer {
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR= findVirtualThreadExecutor();
+
+	private static Method findVirtualThreadExecutor() {
+		try {
+			Method method= Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor");
+			// Fails where virtual threads are a preview feature not enabled
+			((ExecutorService) method.invoke(null)).shutdown();
+			return method;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns true if this JDK runs children on virtual threads, false if
+	 * this computer falls back to a pool of platform threads
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	private final boolean fClasses;
+
+	private final boolean fMethods;
+
+	private final Semaphore fPermits;
+
+	private final ThreadLocal<Boolean> fHoldsPermit= new ThreadLocal<Boolean>();
+
+	private ExecutorService fExecutor= null;
+
+	/**
+	 * @param maxConcurrency
+	 *            the largest number of children running at once
+	 */
+	public VirtualThreadComputer(boolean classes, boolean methods,
+			int maxConcurrency) {
+		super(classes, methods, maxConcurrency);
+		fClasses= classes;
+		fMethods= methods;
+		fPermits= new Semaphore(maxConcurrency);
+	}
+
+	@Override
+	public Runner getSuite(RunnerBuilder builder, Class<?>[] classes)
+			throws InitializationError {
+		Runner suite= super.getSuite(builder, classes);
+		if (isSupported() && fClasses && suite instanceof ParentRunner<?>)
+			((ParentRunner<?>) suite)
+					.setScheduler(guardWhole(new VirtualThreadScheduler(true)));
+		return suite;
+	}
+
+	@Override
+	protected Runner getRunner(RunnerBuilder builder, Class<?> testClass)
+			throws Throwable {
+		Runner runner= super.getRunner(builder, testClass);
+		if (isSupported() && fMethods && runner instanceof ParentRunner<?>)
+			((ParentRunner<?>) runner)
+					.setScheduler(guard(new VirtualThreadScheduler(false)));
+		return runner;
+	}
+
+	private synchronized ExecutorService executor() {
+		if (fExecutor == null)
+			try {
+				fExecutor= (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR
+						.invoke(null);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		return fExecutor;
+	}
+
+	@Override
+	synchronized void runFinished() {
+		super.runFinished();
+		if (fExecutor != null)
+			fExecutor.shutdown();
+		fExecutor= null;
+	}
+
+	private class VirtualThreadScheduler implements RunnerScheduler {
+		private final List<Future<?>> fChildren= new ArrayList<Future<?>>();
+
+		private final boolean fOutermost;
+
+		VirtualThreadScheduler(boolean outermost) {
+			fOutermost= outermost;
+		}
+
+		public void schedule(final Runnable childStatement) {
+			fChildren.add(executor().submit(new Runnable() {
+				public void run() {
+					fPermits.acquireUninterruptibly();
+					fHoldsPermit.set(Boolean.TRUE);
+					try {
+						childStatement.run();
+					} finally {
+						fHoldsPermit.remove();
+						fPermits.release();
+					}
+				}
+			}));
+		}
+
+		public void finished() {
+			// A child waiting for its own children lets another child run
+			boolean holdsPermit= fHoldsPermit.get() != null;
+			if (holdsPermit)
+				fPermits.release();
+			StoppedByUserException stopped= null;
+			try {
+				for (Future<?> each : fChildren)
+					try {
+						each.get();
+					} catch (ExecutionException e) {
+						if (e.getCause() instanceof StoppedByUserException)
+							stopped= (StoppedByUserException) e.getCause();
+						else
+							e.printStackTrace();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+			} finally {
+				fChildren.clear();
+				if (holdsPermit)
+					fPermits.acquireUninterruptibly();
+				if (fOutermost)
+					runFinished();
+			}
+			if (stopped != null)
+				throw stopped;
+		}
+	}
+}
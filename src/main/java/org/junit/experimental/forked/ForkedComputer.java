@@ -0,0 +1,95 @@
+package org.junit.experimental.forked;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.runner.Computer;
+import org.junit.runner.Runner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * Runs each test class in a separate JVM, for tests that leak static state or
+ * native memory. Classes are handed out to a pool of {@code workers} JVMs,
+ * which run them concurrently and stream test events back to this JVM, where
+ * they are merged into the usual {@link org.junit.runner.Result}. Each worker
+ * JVM is reused for up to {@code reuse} classes before being replaced, which
+ * spreads the cost of starting a JVM while bounding how much state can leak
+ * from one class into the next.
+ * 
+ * <pre>
+ * JUnitCore.runClasses(new ForkedComputer(4, 10), LeakyTest.class, OtherTest.class);
+ * </pre>
+ * 
+ * Worker JVMs use the {@code java} of this JVM, its class path (unless another
+ * is given), and the given JVM arguments. Descriptions are computed in this
+ * JVM, so the test classes are also loaded here, but never run here.
+ */
+public class ForkedComputer extends Computer {
+	private final int fWorkers;
+
+	private final int fReuse;
+
+	private final List<String> fJvmArgs;
+
+	private String fClassPath= System.getProperty("java.class.path");
+
+	/**
+	 * @param workers
+	 *            the number of worker JVMs running classes at the same time
+	 * @param reuse
+	 *            the number of classes a worker JVM runs before it is
+	 *            replaced by a fresh one
+	 * @param jvmArgs
+	 *            extra arguments for each worker JVM, such as {@code -Xmx256m}
+	 */
+	public ForkedComputer(int workers, int reuse, String... jvmArgs) {
+		if (workers < 1 || reuse < 1)
+			throw new IllegalArgumentException(
+					"workers and reuse must be positive");
+		fWorkers= workers;
+		fReuse= reuse;
+		fJvmArgs= Arrays.asList(jvmArgs);
+	}
+
+	/**
+	 * Returns a computer that runs every class in a fresh JVM, one at a time
+	 */
+	public static ForkedComputer perClass() {
+		return new ForkedComputer(1, 1);
+	}
+
+	/**
+	 * Sets the class path of the worker JVMs; by default, this JVM's.
+	 */
+	public ForkedComputer withClassPath(String classPath) {
+		fClassPath= classPath;
+		return this;
+	}
+
+	@Override
+	public Runner getSuite(RunnerBuilder builder, Class<?>[] classes)
+			throws InitializationError {
+		List<Runner> runners= new ArrayList<Runner>();
+		Map<Runner, Class<?>> forkable= new HashMap<Runner, Class<?>>();
+		for (Class<?> each : classes) {
+			Runner runner;
+			try {
+				runner= getRunner(builder, each);
+			} catch (Throwable e) {
+				runner= new ErrorReportingRunner(each, e);
+			}
+			if (runner == null)
+				continue;
+			runners.add(runner);
+			if (!(runner instanceof ErrorReportingRunner))
+				forkable.put(runner, each);
+		}
+		return new ForkedSuite(runners, forkable, fWorkers, fReuse, fJvmArgs,
+				fClassPath);
+	}
+}
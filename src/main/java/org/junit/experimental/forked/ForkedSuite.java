@@ -0,0 +1,183 @@
+package org.junit.experimental.forked;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * A {@link Suite} whose children are run in {@link ForkedWorker} JVMs, as
+ * many at a time as there are workers. Children that are not backed by a
+ * loadable test class (such as runners reporting initialization errors) are
+ * run in this JVM.
+ */
+class ForkedSuite extends Suite {
+	private final Map<Runner, Class<?>> fClasses;
+
+	private final List<String> fJvmArgs;
+
+	private final String fClassPath;
+
+	private final int fReuse;
+
+	private final BlockingQueue<WorkerSlot> fSlots;
+
+	private volatile boolean fFiltered= false;
+
+	private static class WorkerSlot {
+		WorkerProcess fWorker= null;
+	}
+
+	ForkedSuite(List<Runner> runners, Map<Runner, Class<?>> classes,
+			int workers, int reuse, List<String> jvmArgs, String classPath)
+			throws InitializationError {
+		super((Class<?>) null, runners);
+		fClasses= classes;
+		fReuse= reuse;
+		fJvmArgs= jvmArgs;
+		fClassPath= classPath;
+		fSlots= new ArrayBlockingQueue<WorkerSlot>(workers);
+		for (int i= 0; i < workers; i++)
+			fSlots.add(new WorkerSlot());
+		setScheduler(new ForkingScheduler(workers));
+	}
+
+	@Override
+	public void filter(Filter filter) throws NoTestsRemainException {
+		fFiltered= true;
+		super.filter(filter);
+	}
+
+	@Override
+	protected void runChild(Runner runner, RunNotifier notifier) {
+		Class<?> testClass= fClasses.get(runner);
+		if (testClass == null) {
+			super.runChild(runner, notifier);
+			return;
+		}
+		WorkerSlot slot= takeSlot();
+		try {
+			runInWorker(slot, testClass, runner.getDescription(), notifier);
+		} finally {
+			fSlots.add(slot);
+		}
+	}
+
+	private WorkerSlot takeSlot() {
+		try {
+			return fSlots.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void runInWorker(WorkerSlot slot, Class<?> testClass,
+			Description description, RunNotifier notifier) {
+		if (slot.fWorker != null && slot.fWorker.getClassesRun() >= fReuse) {
+			slot.fWorker.stop();
+			slot.fWorker= null;
+		}
+		try {
+			if (slot.fWorker == null)
+				slot.fWorker= WorkerProcess.start(fJvmArgs, fClassPath);
+			slot.fWorker.run(testClass.getName(), fFiltered
+					? wantedTests(description)
+					: null, description, notifier);
+		} catch (IOException e) {
+			if (slot.fWorker == null)
+				notifier.fireTestFailure(new Failure(
+						description, e));
+			else {
+				slot.fWorker.kill();
+				slot.fWorker= null;
+			}
+		} catch (RuntimeException e) {
+			// For example, StoppedByUserException: the worker is mid-class
+			if (slot.fWorker != null)
+				slot.fWorker.kill();
+			slot.fWorker= null;
+			throw e;
+		}
+	}
+
+	private static List<Description> wantedTests(Description description) {
+		List<Description> tests= new ArrayList<Description>();
+		collectTests(description, tests);
+		return tests;
+	}
+
+	private static void collectTests(Description description,
+			List<Description> tests) {
+		if (description.isTest())
+			tests.add(description);
+		for (Description each : description.getChildren())
+			collectTests(each, tests);
+	}
+
+	private void stopWorkers() {
+		for (WorkerSlot each : fSlots)
+			if (each.fWorker != null) {
+				each.fWorker.stop();
+				each.fWorker= null;
+			}
+	}
+
+	private class ForkingScheduler implements RunnerScheduler {
+		private final int fThreads;
+
+		private final List<Future<?>> fResults= new ArrayList<Future<?>>();
+
+		private ExecutorService fService= null;
+
+		ForkingScheduler(int threads) {
+			fThreads= threads;
+		}
+
+		public void schedule(Runnable childStatement) {
+			if (fService == null)
+				fService= Executors.newFixedThreadPool(fThreads,
+						new ThreadFactory() {
+							public Thread newThread(Runnable r) {
+								Thread thread= new Thread(r, "ForkedComputer-dispatcher");
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+			fResults.add(fService.submit(childStatement));
+		}
+
+		public void finished() {
+			try {
+				for (Future<?> each : fResults)
+					try {
+						each.get();
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+			} finally {
+				fResults.clear();
+				if (fService != null)
+					fService.shutdown();
+				fService= null;
+				stopWorkers();
+			}
+		}
+	}
+}
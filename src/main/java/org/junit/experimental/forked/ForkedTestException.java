@@ -0,0 +1,19 @@
+package org.junit.experimental.forked;
+
+/**
+ * Stands in for an exception thrown in a {@link ForkedWorker} that could not
+ * be sent back to the parent JVM, for example because it is not
+ * serializable. Keeps the original's description and stack trace.
+ */
+public class ForkedTestException extends RuntimeException {
+	private static final long serialVersionUID= 1L;
+
+	ForkedTestException(Throwable original) {
+		super(original.toString());
+		setStackTrace(original.getStackTrace());
+	}
+
+	ForkedTestException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,140 @@
+package org.junit.experimental.forked;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * The main class of the JVMs started by {@link ForkedComputer}. Connects back
+ * to the parent on the port given as the only argument, then runs the test
+ * classes it is sent, one at a time, streaming their events back, until told
+ * to exit.
+ */
+public class ForkedWorker {
+	private final DataInputStream fIn;
+
+	private final DataOutputStream fOut;
+
+	ForkedWorker(DataInputStream in, DataOutputStream out) {
+		fIn= in;
+		fOut= out;
+	}
+
+	public static void main(String... args) throws IOException {
+		Socket socket= new Socket(InetAddress.getByName("127.0.0.1"), Integer
+				.parseInt(args[0]));
+		try {
+			new ForkedWorker(new DataInputStream(new BufferedInputStream(
+					socket.getInputStream())), new DataOutputStream(
+					new BufferedOutputStream(socket.getOutputStream()))).serve();
+		} finally {
+			socket.close();
+		}
+		System.exit(0);
+	}
+
+	void serve() throws IOException {
+		while (true) {
+			String className= fIn.readUTF();
+			if (className.length() == 0)
+				return;
+			List<Description> wanted= readWantedTests();
+			runClass(className, wanted);
+			synchronized (fOut) {
+				fOut.writeByte(Protocol.CLASS_DONE);
+				fOut.flush();
+			}
+		}
+	}
+
+	private List<Description> readWantedTests() throws IOException {
+		int count= fIn.readInt();
+		if (count == Protocol.ALL_TESTS)
+			return null;
+		List<Description> wanted= new ArrayList<Description>(count);
+		for (int i= 0; i < count; i++)
+			wanted.add(Description.createSuiteDescription(fIn.readUTF()));
+		return wanted;
+	}
+
+	private void runClass(String className, List<Description> wanted)
+			throws IOException {
+		Description classDescription= Description.createSuiteDescription(className);
+		Runner runner;
+		try {
+			Request request= Request.aClass(Class.forName(className));
+			if (wanted != null)
+				request= request.filterWith(wanted);
+			runner= request.getRunner();
+		} catch (Throwable e) {
+			send(Protocol.FAILURE, classDescription, e);
+			return;
+		}
+		RunNotifier notifier= new RunNotifier();
+		notifier.addListener(new StreamingListener());
+		try {
+			runner.run(notifier);
+		} catch (Throwable e) {
+			send(Protocol.FAILURE, classDescription, e);
+		}
+	}
+
+	private class StreamingListener extends RunListener {
+		@Override
+		public void testStarted(Description description) throws Exception {
+			send(Protocol.STARTED, description, null);
+		}
+
+		@Override
+		public void testFinished(Description description) throws Exception {
+			send(Protocol.FINISHED, description, null);
+		}
+
+		@Override
+		public void testFailure(Failure failure) throws Exception {
+			send(Protocol.FAILURE, failure.getDescription(), failure
+					.getException());
+		}
+
+		@Override
+		public void testAssumptionFailure(Failure failure) {
+			try {
+				send(Protocol.ASSUMPTION_FAILED, failure.getDescription(),
+						failure.getException());
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void testIgnored(Description description) throws Exception {
+			send(Protocol.IGNORED, description, null);
+		}
+	}
+
+	private void send(byte kind, Description description, Throwable throwable)
+			throws IOException {
+		synchronized (fOut) {
+			fOut.writeByte(kind);
+			fOut.writeUTF(description.getDisplayName());
+			if (kind == Protocol.FAILURE || kind == Protocol.ASSUMPTION_FAILED)
+				Protocol.writeThrowable(fOut, throwable);
+			// Stream events as they happen, so that the parent knows which
+			// test was running if this JVM dies
+			fOut.flush();
+		}
+	}
+}
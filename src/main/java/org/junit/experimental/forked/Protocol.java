@@ -0,0 +1,71 @@
+package org.junit.experimental.forked;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * The messages exchanged between a {@link ForkedComputer} and its
+ * {@link ForkedWorker}s.
+ * 
+ * The parent sends the name of a test class (or an empty string to make the
+ * worker exit), followed by the number of wanted tests and their display
+ * names, or -1 to run the whole class. The worker answers with a stream of
+ * events, each a kind byte followed by the display name of the test it is
+ * about and, for failures, the serialized {@link Throwable}, and ends the
+ * class with {@link #CLASS_DONE}.
+ */
+final class Protocol {
+	static final byte STARTED= 1;
+
+	static final byte FINISHED= 2;
+
+	static final byte FAILURE= 3;
+
+	static final byte ASSUMPTION_FAILED= 4;
+
+	static final byte IGNORED= 5;
+
+	static final byte CLASS_DONE= 6;
+
+	static final int ALL_TESTS= -1;
+
+	private Protocol() {
+	}
+
+	static void writeThrowable(DataOutputStream out, Throwable throwable)
+			throws IOException {
+		byte[] bytes;
+		try {
+			bytes= serialize(throwable);
+		} catch (IOException e) {
+			bytes= serialize(new ForkedTestException(throwable));
+		}
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static Throwable readThrowable(DataInputStream in) throws IOException {
+		byte[] bytes= new byte[in.readInt()];
+		in.readFully(bytes);
+		try {
+			ObjectInputStream stream= new ObjectInputStream(
+					new ByteArrayInputStream(bytes));
+			return (Throwable) stream.readObject();
+		} catch (ClassNotFoundException e) {
+			return new ForkedTestException(e);
+		}
+	}
+
+	private static byte[] serialize(Throwable throwable) throws IOException {
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		ObjectOutputStream stream= new ObjectOutputStream(bytes);
+		stream.writeObject(throwable);
+		stream.close();
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,223 @@
+package org.junit.experimental.forked;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * The parent's handle on one {@link ForkedWorker} JVM.
+ */
+class WorkerProcess {
+	private static final int CONNECT_TIMEOUT_MILLIS= 60000;
+
+	private final Process fProcess;
+
+	private final Socket fSocket;
+
+	private final DataInputStream fIn;
+
+	private final DataOutputStream fOut;
+
+	private int fClassesRun= 0;
+
+	private WorkerProcess(Process process, Socket socket) throws IOException {
+		fProcess= process;
+		fSocket= socket;
+		fIn= new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		fOut= new DataOutputStream(new BufferedOutputStream(socket
+				.getOutputStream()));
+	}
+
+	static WorkerProcess start(List<String> jvmArgs, String classPath)
+			throws IOException {
+		ServerSocket server= new ServerSocket(0, 1, InetAddress
+				.getByName("127.0.0.1"));
+		try {
+			server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+			List<String> command= new ArrayList<String>();
+			command.add(System.getProperty("java.home") + "/bin/java");
+			command.addAll(jvmArgs);
+			command.add("-cp");
+			command.add(classPath);
+			command.add(ForkedWorker.class.getName());
+			command.add(String.valueOf(server.getLocalPort()));
+			ProcessBuilder builder= new ProcessBuilder(command);
+			builder.redirectErrorStream(true);
+			Process process= builder.start();
+			pumpOutput(process.getInputStream());
+			try {
+				return new WorkerProcess(process, server.accept());
+			} catch (IOException e) {
+				process.destroy();
+				throw e;
+			}
+		} finally {
+			server.close();
+		}
+	}
+
+	private static void pumpOutput(final InputStream output) {
+		Thread pump= new Thread("ForkedComputer-output") {
+			@Override
+			public void run() {
+				byte[] buffer= new byte[8192];
+				try {
+					for (int read; (read= output.read(buffer)) != -1;)
+						System.out.write(buffer, 0, read);
+				} catch (IOException e) {
+					// worker is gone
+				}
+			}
+		};
+		pump.setDaemon(true);
+		pump.start();
+	}
+
+	int getClassesRun() {
+		return fClassesRun;
+	}
+
+	/**
+	 * Runs {@code className} in the worker, firing its events on
+	 * {@code notifier} against the matching descriptions of
+	 * {@code classDescription}. If the worker dies, the running test and the
+	 * class are reported as failed and an {@link IOException} is thrown.
+	 */
+	void run(String className, List<Description> wanted,
+			Description classDescription, RunNotifier notifier)
+			throws IOException {
+		fClassesRun++;
+		Map<String, Description> descriptions= new HashMap<String, Description>();
+		index(classDescription, descriptions);
+		Set<Description> running= new HashSet<Description>();
+		try {
+			send(className, wanted);
+			receive(descriptions, running, notifier);
+		} catch (IOException e) {
+			reportCrash(classDescription, running, notifier, e);
+			throw e;
+		}
+	}
+
+	private void send(String className, List<Description> wanted)
+			throws IOException {
+		fOut.writeUTF(className);
+		if (wanted == null)
+			fOut.writeInt(Protocol.ALL_TESTS);
+		else {
+			fOut.writeInt(wanted.size());
+			for (Description each : wanted)
+				fOut.writeUTF(each.getDisplayName());
+		}
+		fOut.flush();
+	}
+
+	private void receive(Map<String, Description> descriptions,
+			Set<Description> running, RunNotifier notifier) throws IOException {
+		while (true) {
+			byte kind= fIn.readByte();
+			if (kind == Protocol.CLASS_DONE)
+				return;
+			Description description= lookup(descriptions, fIn.readUTF());
+			switch (kind) {
+			case Protocol.STARTED:
+				running.add(description);
+				notifier.fireTestStarted(description);
+				break;
+			case Protocol.FINISHED:
+				running.remove(description);
+				notifier.fireTestFinished(description);
+				break;
+			case Protocol.FAILURE:
+				notifier.fireTestFailure(new Failure(description, Protocol
+						.readThrowable(fIn)));
+				break;
+			case Protocol.ASSUMPTION_FAILED:
+				notifier.fireTestAssumptionFailed(new Failure(description,
+						Protocol.readThrowable(fIn)));
+				break;
+			case Protocol.IGNORED:
+				notifier.fireTestIgnored(description);
+				break;
+			default:
+				throw new IOException("Unknown event from forked JVM: " + kind);
+			}
+		}
+	}
+
+	private void reportCrash(Description classDescription,
+			Set<Description> running, RunNotifier notifier, IOException e) {
+		String message= e instanceof EOFException
+				? "Forked JVM terminated unexpectedly"
+				: "Lost connection to forked JVM: " + e;
+		for (Description each : running) {
+			notifier.fireTestFailure(new Failure(each, new ForkedTestException(
+					message)));
+			notifier.fireTestFinished(each);
+		}
+		notifier.fireTestFailure(new Failure(classDescription,
+				new ForkedTestException(message)));
+	}
+
+	private static void index(Description description,
+			Map<String, Description> descriptions) {
+		descriptions.put(description.getDisplayName(), description);
+		for (Description each : description.getChildren())
+			index(each, descriptions);
+	}
+
+	private static Description lookup(Map<String, Description> descriptions,
+			String displayName) {
+		Description description= descriptions.get(displayName);
+		if (description == null) {
+			// Tests discovered only while running, such as dynamically
+			// built JUnit 3 suites
+			description= Description.createSuiteDescription(displayName);
+			descriptions.put(displayName, description);
+		}
+		return description;
+	}
+
+	/**
+	 * Asks the worker to exit, and makes sure it does.
+	 */
+	void stop() {
+		try {
+			fOut.writeUTF("");
+			fOut.flush();
+			fProcess.waitFor();
+		} catch (IOException e) {
+			// already gone
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			kill();
+		}
+	}
+
+	void kill() {
+		try {
+			fSocket.close();
+		} catch (IOException e) {
+			// nothing left to close
+		}
+		fProcess.destroy();
+	}
+}
@@ -0,0 +1,224 @@
+package org.junit.experimental.max;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * A {@link ParallelComputer} that starts the longest classes and methods
+ * first, using the mean durations kept by a {@link MaxHistory}. With a pool
+ * that hands work to whichever worker frees up first, this is
+ * longest-processing-time-first scheduling: a long class can no longer be
+ * started last and keep a single worker busy long after the others are idle.
+ * Tests the history does not know yet are assumed to take as long as the
+ * average known test.
+ *
+ * <pre>
+ * MaxHistory history= MaxHistory.forFolder(file);
+ * DurationBalancedComputer computer= new DurationBalancedComputer(history, true, true, 4);
+ * JUnitCore core= new JUnitCore();
+ * core.addListener(history.listener());
+ * core.run(computer, classes);
+ * System.out.println(computer.getPredictedMakespan() + " vs " + computer.getActualMakespan());
+ * </pre>
+ */
+public class DurationBalancedComputer extends ParallelComputer {
+	private final MaxHistory fHistory;
+
+	private final boolean fClasses;
+
+	private final boolean fMethods;
+
+	private volatile long fPredictedMakespan= 0;
+
+	private volatile long fActualMakespan= 0;
+
+	/**
+	 * @param history
+	 *            where the durations are read from; add its
+	 *            {@link MaxHistory#listener()} to the run to keep it current
+	 * @param parallelism
+	 *            the number of worker threads shared by the whole run
+	 */
+	public DurationBalancedComputer(MaxHistory history, boolean classes,
+			boolean methods, int parallelism) {
+		super(classes, methods, parallelism);
+		fHistory= history;
+		fClasses= classes;
+		fMethods= methods;
+	}
+
+	/**
+	 * Returns how long, in nanoseconds, the last run started by this computer
+	 * was expected to take, according to the history
+	 */
+	public long getPredictedMakespan() {
+		return fPredictedMakespan;
+	}
+
+	/**
+	 * Returns how long, in nanoseconds, the last run started by this computer
+	 * actually took
+	 */
+	public long getActualMakespan() {
+		return fActualMakespan;
+	}
+
+	@Override
+	public Runner getSuite(RunnerBuilder builder, Class<?>[] classes)
+			throws InitializationError {
+		Runner suite= super.getSuite(builder, classes);
+		new Sorter(new LongestFirst(estimates(suite.getDescription())))
+				.apply(suite);
+		return new MeasuringRunner(suite);
+	}
+
+	// Keyed by display name: sorting a suite reorders its children, which
+	// changes how its Description compares
+	private Map<String, Double> estimates(Description suite) {
+		List<Description> leaves= new ArrayList<Description>();
+		collectLeaves(suite, leaves);
+		double known= 0;
+		int knownCount= 0;
+		for (Description each : leaves) {
+			Double mean= fHistory.getMeanDuration(each);
+			if (mean != null) {
+				known+= mean;
+				knownCount++;
+			}
+		}
+		double unknown= knownCount == 0 ? 0 : known / knownCount;
+		Map<String, Double> estimates= new HashMap<String, Double>();
+		estimate(suite, unknown, estimates);
+		return estimates;
+	}
+
+	private double estimate(Description description, double unknown,
+			Map<String, Double> estimates) {
+		double result;
+		if (description.isTest()) {
+			Double mean= fHistory.getMeanDuration(description);
+			result= mean == null ? unknown : mean;
+		} else {
+			result= 0;
+			for (Description each : description.getChildren())
+				result+= estimate(each, unknown, estimates);
+		}
+		estimates.put(description.getDisplayName(), result);
+		return result;
+	}
+
+	private static void collectLeaves(Description description,
+			List<Description> leaves) {
+		if (description.isTest())
+			leaves.add(description);
+		for (Description each : description.getChildren())
+			collectLeaves(each, leaves);
+	}
+
+	private long predictMakespan(Description suite) {
+		Map<String, Double> estimates= estimates(suite);
+		if (fClasses && fMethods) {
+			List<Description> leaves= new ArrayList<Description>();
+			collectLeaves(suite, leaves);
+			return schedule(leaves, estimates);
+		}
+		if (fClasses)
+			return schedule(suite.getChildren(), estimates);
+		if (fMethods) {
+			long result= 0;
+			for (Description each : suite.getChildren()) {
+				List<Description> leaves= new ArrayList<Description>();
+				collectLeaves(each, leaves);
+				result+= schedule(leaves, estimates);
+			}
+			return result;
+		}
+		return Math.round(estimates.get(suite.getDisplayName()));
+	}
+
+	// Simulates handing jobs, longest first, to whichever worker is free first
+	private long schedule(List<Description> jobs,
+			Map<String, Double> estimates) {
+		List<Double> durations= new ArrayList<Double>();
+		for (Description each : jobs)
+			durations.add(estimates.get(each.getDisplayName()));
+		Collections.sort(durations, Collections.reverseOrder());
+		PriorityQueue<Double> workers= new PriorityQueue<Double>();
+		for (int i= 0; i < getParallelism(); i++)
+			workers.add(0.0);
+		double makespan= 0;
+		for (Double each : durations) {
+			double finish= workers.poll() + each;
+			makespan= Math.max(makespan, finish);
+			workers.add(finish);
+		}
+		return Math.round(makespan);
+	}
+
+	private static class LongestFirst implements Comparator<Description> {
+		private final Map<String, Double> fEstimates;
+
+		LongestFirst(Map<String, Double> estimates) {
+			fEstimates= estimates;
+		}
+
+		public int compare(Description o1, Description o2) {
+			return Double.compare(estimate(o2), estimate(o1));
+		}
+
+		private double estimate(Description description) {
+			Double result= fEstimates.get(description.getDisplayName());
+			return result == null ? 0 : result;
+		}
+	}
+
+	private class MeasuringRunner extends Runner implements Filterable,
+			Sortable {
+		private final Runner fSuite;
+
+		MeasuringRunner(Runner suite) {
+			fSuite= suite;
+		}
+
+		@Override
+		public Description getDescription() {
+			return fSuite.getDescription();
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+			fPredictedMakespan= predictMakespan(getDescription());
+			long start= System.nanoTime();
+			try {
+				fSuite.run(notifier);
+			} finally {
+				fActualMakespan= System.nanoTime() - start;
+			}
+		}
+
+		public void filter(Filter filter) throws NoTestsRemainException {
+			filter.apply(fSuite);
+		}
+
+		public void sort(Sorter sorter) {
+			sorter.apply(fSuite);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package org.junit.experimental.max;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The on-disk form of a {@link MaxHistory}: an append-only log of records,
+ * each a kind, a test key and a value, protected by a CRC32 checksum.
+ * Replaying the log in order rebuilds the history. A run appends only the
+ * records it produced, and forces them to disk before returning, so a crash
+ * can at worst leave a torn last record, which is detected and dropped on the
+ * next load. When the log holds many more records than live entries, it is
+ * compacted by writing a fresh log next to it and renaming it into place.
+ */
+class HistoryStore {
+	interface RecordHandler {
+		void record(byte kind, String key, long value);
+	}
+
+	static class Record {
+		final byte fKind;
+
+		final String fKey;
+
+		final long fValue;
+
+		Record(byte kind, String key, long value) {
+			fKind= kind;
+			fKey= key;
+			fValue= value;
+		}
+	}
+
+	private static final byte[] MAGIC= { 'J', 'U', 'M', 'A', 'X', 'L', 'O', 'G' };
+
+	private static final int VERSION= 1;
+
+	private static final int HEADER_LENGTH= MAGIC.length + 4;
+
+	private static final int COMPACTION_FACTOR= 2;
+
+	private static final int MINIMUM_RECORDS_BEFORE_COMPACTION= 1024;
+
+	private final File fFile;
+
+	private long fValidLength= 0;
+
+	private int fRecordCount= 0;
+
+	HistoryStore(File file) {
+		fFile= file;
+	}
+
+	/**
+	 * Returns true if {@code file} starts like a log written by this class.
+	 * Files written by older versions of JUnit, with Java serialization, do
+	 * not.
+	 */
+	static boolean isLog(File file) throws IOException {
+		DataInputStream in= new DataInputStream(new FileInputStream(file));
+		try {
+			byte[] magic= new byte[MAGIC.length];
+			in.readFully(magic);
+			return Arrays.equals(magic, MAGIC);
+		} catch (EOFException e) {
+			return false;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Replays every intact record of the log to {@code handler}, in the order
+	 * they were written, and returns the number of records. Anything after
+	 * the first damaged record is ignored, and overwritten by the next append.
+	 */
+	int load(RecordHandler handler) throws IOException {
+		fValidLength= 0;
+		fRecordCount= 0;
+		if (!fFile.exists())
+			return 0;
+		byte[] bytes= readFully();
+		ByteArrayInputStream buffer= new ByteArrayInputStream(bytes);
+		DataInputStream in= new DataInputStream(buffer);
+		byte[] magic= new byte[MAGIC.length];
+		in.readFully(magic);
+		if (!Arrays.equals(magic, MAGIC) || in.readInt() != VERSION)
+			throw new IOException("Not a JUnit Max history log: " + fFile);
+		fValidLength= HEADER_LENGTH;
+		try {
+			while (buffer.available() > 0) {
+				byte kind= in.readByte();
+				String key= in.readUTF();
+				long value= in.readLong();
+				int checksum= in.readInt();
+				if (checksum != checksum(kind, key, value))
+					break;
+				handler.record(kind, key, value);
+				fRecordCount++;
+				fValidLength= bytes.length - buffer.available();
+			}
+		} catch (EOFException e) {
+			// torn last record: ignore it
+		}
+		return fRecordCount;
+	}
+
+	private byte[] readFully() throws IOException {
+		DataInputStream in= new DataInputStream(new FileInputStream(fFile));
+		try {
+			byte[] bytes= new byte[(int) fFile.length()];
+			in.readFully(bytes);
+			return bytes;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Appends {@code records} to the log and forces them to disk.
+	 */
+	void append(List<Record> records) throws IOException {
+		if (records.isEmpty())
+			return;
+		if (fValidLength == 0) {
+			rewrite(records);
+			return;
+		}
+		byte[] bytes= encode(records);
+		RandomAccessFile file= new RandomAccessFile(fFile, "rw");
+		try {
+			file.setLength(fValidLength); // drop a torn tail, if any
+			file.seek(fValidLength);
+			file.write(bytes);
+			file.getFD().sync();
+		} finally {
+			file.close();
+		}
+		fValidLength+= bytes.length;
+		fRecordCount+= records.size();
+	}
+
+	/**
+	 * Returns true if the log, once {@code newRecords} more records are
+	 * appended, will have grown enough compared to the number of
+	 * {@code liveEntries} it describes to be worth compacting instead.
+	 */
+	boolean needsCompaction(int liveEntries, int newRecords) {
+		int records= fRecordCount + newRecords;
+		return records > MINIMUM_RECORDS_BEFORE_COMPACTION
+				&& records > COMPACTION_FACTOR * liveEntries;
+	}
+
+	/**
+	 * Replaces the log with one holding exactly {@code records}. The new log
+	 * is written and forced to disk under a temporary name first, so the old
+	 * log stays intact until the new one is complete.
+	 */
+	void rewrite(List<Record> records) throws IOException {
+		File temporary= new File(fFile.getPath() + ".tmp");
+		FileOutputStream out= new FileOutputStream(temporary);
+		try {
+			DataOutputStream data= new DataOutputStream(out);
+			data.write(MAGIC);
+			data.writeInt(VERSION);
+			data.write(encode(records));
+			data.flush();
+			out.getFD().sync();
+		} finally {
+			out.close();
+		}
+		if (!temporary.renameTo(fFile)) {
+			// Some platforms do not rename over an existing file
+			fFile.delete();
+			if (!temporary.renameTo(fFile))
+				throw new IOException("Could not replace " + fFile);
+		}
+		fValidLength= fFile.length();
+		fRecordCount= records.size();
+	}
+
+	private static byte[] encode(List<Record> records) throws IOException {
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		DataOutputStream out= new DataOutputStream(bytes);
+		for (Record each : records) {
+			out.writeByte(each.fKind);
+			out.writeUTF(each.fKey);
+			out.writeLong(each.fValue);
+			out.writeInt(checksum(each.fKind, each.fKey, each.fValue));
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static int checksum(byte kind, String key, long value)
+			throws IOException {
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		DataOutputStream out= new DataOutputStream(bytes);
+		out.writeByte(kind);
+		out.writeUTF(key);
+		out.writeLong(value);
+		out.flush();
+		CRC32 crc= new CRC32();
+		crc.update(bytes.toByteArray());
+		return (int) crc.getValue();
+	}
+}
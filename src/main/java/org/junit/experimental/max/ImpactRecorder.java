@@ -0,0 +1,152 @@
+package org.junit.experimental.max;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+
+/**
+ * Runs tests while recording, for each test, which classes of the project it
+ * used, and stores the result in a {@link TestImpact}.
+ *
+ * Each test runs in its own {@link ClassLoader} that loads the project's
+ * classes afresh, so the classes it loads are exactly the classes it used,
+ * whatever ran before it. This makes a recording run slower than a normal one,
+ * and static state is not shared between tests; record occasionally, for
+ * example nightly, and use {@link TestImpact#impactedBy(java.util.Collection)}
+ * in between.
+ *
+ * Only classes found on the recorded class path count as the project's. By
+ * default this is every directory on {@code java.class.path}, which leaves out
+ * JUnit and other libraries packaged as jars. JUnit's own classes are never
+ * loaded anew, even from a directory.
+ */
+public class ImpactRecorder {
+	private final TestImpact fImpact;
+
+	private final URL[] fClassPath;
+
+	/**
+	 * Records the classes each test loads from the directories on
+	 * {@code java.class.path}
+	 */
+	public ImpactRecorder(TestImpact impact) {
+		this(impact, directoriesOnClassPath());
+	}
+
+	/**
+	 * Records the classes each test loads from {@code classPath}
+	 */
+	public ImpactRecorder(TestImpact impact, URL... classPath) {
+		fImpact= impact;
+		fClassPath= classPath;
+	}
+
+	private static URL[] directoriesOnClassPath() {
+		List<URL> result= new ArrayList<URL>();
+		String classPath= System.getProperty("java.class.path", "");
+		for (String each : classPath.split(File.pathSeparator)) {
+			File entry= new File(each);
+			if (entry.isDirectory())
+				try {
+					result.add(entry.toURI().toURL());
+				} catch (MalformedURLException e) {
+					// skip it
+				}
+		}
+		return result.toArray(new URL[result.size()]);
+	}
+
+	/**
+	 * Runs every test in {@code classes}, notifying the listeners of
+	 * {@code core}, then stores the classes each test used and saves the
+	 * {@link TestImpact}.
+	 */
+	public Result run(JUnitCore core, Class<?>... classes) throws IOException {
+		List<Runner> runners= new ArrayList<Runner>();
+		for (Class<?> each : classes)
+			for (Description test : findLeaves(Request.aClass(each).getRunner()
+					.getDescription()))
+				runners.add(new IsolatedTest(each, test));
+
+		Runner suite;
+		try {
+			suite= new Suite((Class<?>) null, runners) {};
+		} catch (InitializationError e) {
+			suite= new ErrorReportingRunner(null, e);
+		}
+		Result result= core.run(suite);
+		fImpact.save();
+		return result;
+	}
+
+	/**
+	 * Runs one test in a class loader of its own, created just before the
+	 * test runs and dropped right after, so that only one copy of the
+	 * project's classes is loaded at a time.
+	 */
+	private class IsolatedTest extends Runner {
+		private final Class<?> fType;
+
+		private final Description fTest;
+
+		IsolatedTest(Class<?> type, Description test) {
+			fType= type;
+			fTest= test;
+		}
+
+		@Override
+		public Description getDescription() {
+			return fTest;
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+			RecordingClassLoader loader= new RecordingClassLoader(fClassPath,
+					ImpactRecorder.class.getClassLoader());
+			isolatedRunner(fType, fTest, loader).run(notifier);
+			fImpact.putUsedClasses(fTest, loader.getLoadedClassNames());
+		}
+	}
+
+	private static Runner isolatedRunner(Class<?> type, Description test,
+			ClassLoader loader) {
+		Class<?> isolated;
+		try {
+			isolated= loader.loadClass(type.getName());
+		} catch (ClassNotFoundException e) {
+			return new ErrorReportingRunner(type, e);
+		}
+		String methodName= test.getMethodName();
+		if (methodName == null)
+			return Request.aClass(isolated).getRunner();
+		return Request.method(isolated, methodName).getRunner();
+	}
+
+	private static List<Description> findLeaves(Description description) {
+		List<Description> results= new ArrayList<Description>();
+		findLeaves(description, results);
+		return results;
+	}
+
+	private static void findLeaves(Description description,
+			List<Description> results) {
+		if (description.getChildren().isEmpty())
+			results.add(description);
+		else
+			for (Description each : description.getChildren())
+				findLeaves(each, results);
+	}
+}
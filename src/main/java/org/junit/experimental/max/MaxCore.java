@@ -25,9 +25,11 @@ import org.junit.runners.model.InitializationError;
  * The rules for sorting are:
  * <ol>
  * <li> Never-run tests first, in arbitrary order
+ * <li> Then tests expected to find the most failures per second of runtime: a test's failure rate,
+ * with older runs weighing less, divided by its smoothed average duration.
  * <li> Group remaining tests by the date at which they most recently failed.
  * <li> Sort groups such that the most recent failure date is first, and never-failing tests are at the end.
- * <li> Within a group, run the fastest tests first. 
+ * <li> Within a group, run the fastest tests first, by smoothed average duration.
  * </ol>
  */
 public class MaxCore {
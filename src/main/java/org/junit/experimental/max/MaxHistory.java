@@ -2,14 +2,17 @@ package org.junit.experimental.max;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.runner.Description;
 import org.junit.runner.Result;
@@ -21,24 +24,44 @@ import org.junit.runner.notification.RunListener;
  * <ul>
  * <li>Last failure timestamp
  * <li>Duration of last execution
+ * <li>Rolling duration statistics and a decayed failure rate (see
+ * {@link TestStatistics})
  * </ul>
+ * 
+ * The history is kept in an append-only log (see {@link HistoryStore}): each
+ * run appends only what it learned, and lookups by test are served from
+ * memory. History files written by older versions, with Java serialization,
+ * are read and converted on the next save.
  */
 public class MaxHistory implements Serializable {
 	private static final long serialVersionUID= 1L;
 
+	private static final byte DURATION= 1;
+
+	private static final byte FAILURE_TIMESTAMP= 2;
+
+	private static final byte OUTCOME= 3;
+
+	// Written only when compacting, after the durations they summarize
+	private static final byte MEAN_DURATION= 4;
+
+	private static final byte FAILURE_RATE= 5;
+
 	/**
 	 * Loads a {@link MaxHistory} from {@code file}, or generates a new one that
 	 * will be saved to {@code file}.
 	 */
 	public static MaxHistory forFolder(File file) {
+		MaxHistory history= new MaxHistory(file);
 		if (file.exists())
 			try {
-				return readHistory(file);
+				history.load();
 			} catch (CouldNotReadCoreException e) {
 				e.printStackTrace();
 				file.delete();
+				history= new MaxHistory(file);
 			}
-		return new MaxHistory(file);
+		return history;
 	}
 
 	private static MaxHistory readHistory(File storedResults)
@@ -60,47 +83,191 @@ public class MaxHistory implements Serializable {
 		}
 	}
 
+	// Field names are kept for reading histories serialized by older versions
 	private final Map<String, Long> fDurations= new HashMap<String, Long>();
 
 	private final Map<String, Long> fFailureTimestamps= new HashMap<String, Long>();
 
 	private final File fHistoryStore;
 
+	private transient HistoryStore fStore;
+
+	private transient List<HistoryStore.Record> fPending;
+
+	private transient boolean fNeedsRewrite;
+
+	private transient Map<String, TestStatistics> fStatistics;
+
 	private MaxHistory(File storedResults) {
 		fHistoryStore= storedResults;
+		fStore= new HistoryStore(storedResults);
+		fPending= new ArrayList<HistoryStore.Record>();
+		fNeedsRewrite= false;
+		fStatistics= new HashMap<String, TestStatistics>();
+	}
+
+	private void load() throws CouldNotReadCoreException {
+		try {
+			if (HistoryStore.isLog(fHistoryStore))
+				fStore.load(new HistoryStore.RecordHandler() {
+					public void record(byte kind, String key, long value) {
+						apply(kind, key, value);
+					}
+				});
+			else {
+				MaxHistory legacy= readHistory(fHistoryStore);
+				for (Map.Entry<String, Long> each : legacy.fDurations.entrySet())
+					apply(DURATION, each.getKey(), each.getValue());
+				for (Map.Entry<String, Long> each : legacy.fFailureTimestamps
+						.entrySet()) {
+					apply(FAILURE_TIMESTAMP, each.getKey(), each.getValue());
+					apply(OUTCOME, each.getKey(), 1);
+				}
+				fNeedsRewrite= true;
+			}
+		} catch (IOException e) {
+			throw new CouldNotReadCoreException(e);
+		}
+	}
+
+	private void apply(byte kind, String key, long value) {
+		switch (kind) {
+		case DURATION:
+			fDurations.put(key, value);
+			statistics(key).addDuration(value);
+			break;
+		case FAILURE_TIMESTAMP:
+			fFailureTimestamps.put(key, value);
+			break;
+		case OUTCOME:
+			statistics(key).addOutcome(value != 0);
+			break;
+		case MEAN_DURATION:
+			statistics(key).setMeanDuration(Double.longBitsToDouble(value));
+			break;
+		case FAILURE_RATE:
+			statistics(key).setFailureRate(Double.longBitsToDouble(value));
+			break;
+		default:
+			// records of unknown kinds come from newer versions: skip them
+		}
+	}
+
+	private TestStatistics statistics(String key) {
+		TestStatistics result= fStatistics.get(key);
+		if (result == null) {
+			result= new TestStatistics();
+			fStatistics.put(key, result);
+		}
+		return result;
+	}
+
+	private synchronized void record(byte kind, String key, long value) {
+		apply(kind, key, value);
+		fPending.add(new HistoryStore.Record(kind, key, value));
+	}
+
+	private synchronized void save() throws IOException {
+		int liveEntries= fFailureTimestamps.size();
+		for (TestStatistics each : fStatistics.values())
+			liveEntries+= each.getRecentDurations().size() + 2;
+		if (fNeedsRewrite || fStore.needsCompaction(liveEntries, fPending.size()))
+			fStore.rewrite(snapshot());
+		else
+			fStore.append(fPending);
+		fPending.clear();
+		fNeedsRewrite= false;
 	}
 
-	private void save() throws IOException {
-		ObjectOutputStream stream= new ObjectOutputStream(new FileOutputStream(
-				fHistoryStore));
-		stream.writeObject(this);
-		stream.close();
+	private List<HistoryStore.Record> snapshot() {
+		List<HistoryStore.Record> records= new ArrayList<HistoryStore.Record>();
+		for (Map.Entry<String, TestStatistics> each : fStatistics.entrySet()) {
+			String key= each.getKey();
+			TestStatistics statistics= each.getValue();
+			for (Long duration : statistics.getRecentDurations())
+				records.add(new HistoryStore.Record(DURATION, key, duration));
+			records.add(new HistoryStore.Record(MEAN_DURATION, key, Double
+					.doubleToLongBits(statistics.getMeanDuration())));
+			records.add(new HistoryStore.Record(FAILURE_RATE, key, Double
+					.doubleToLongBits(statistics.getFailureRate())));
+		}
+		for (Map.Entry<String, Long> each : fFailureTimestamps.entrySet())
+			records.add(new HistoryStore.Record(FAILURE_TIMESTAMP,
+					each.getKey(), each.getValue()));
+		return records;
 	}
 
-	Long getFailureTimestamp(Description key) {
+	synchronized Long getFailureTimestamp(Description key) {
 		return fFailureTimestamps.get(key.toString());
 	}
 
 	void putTestFailureTimestamp(Description key, long end) {
-		fFailureTimestamps.put(key.toString(), end);
+		record(FAILURE_TIMESTAMP, key.toString(), end);
 	}
 
-	boolean isNewTest(Description key) {
+	synchronized boolean isNewTest(Description key) {
 		return !fDurations.containsKey(key.toString());
 	}
 
-	Long getTestDuration(Description key) {
+	synchronized Long getTestDuration(Description key) {
 		return fDurations.get(key.toString());
 	}
 
 	void putTestDuration(Description description, long duration) {
-		fDurations.put(description.toString(), duration);
+		record(DURATION, description.toString(), duration);
+	}
+
+	void putTestOutcome(Description description, boolean failed) {
+		record(OUTCOME, description.toString(), failed ? 1 : 0);
+	}
+
+	/**
+	 * Returns the exponentially weighted mean duration of {@code key}, in
+	 * nanoseconds, or null if it has never finished.
+	 */
+	synchronized Double getMeanDuration(Description key) {
+		TestStatistics statistics= fStatistics.get(key.toString());
+		if (statistics == null || !statistics.hasDurations())
+			return null;
+		return statistics.getMeanDuration();
+	}
+
+	/**
+	 * Returns the {@code percentile}th percentile of the recent durations of
+	 * {@code key}, in nanoseconds, or null if it has never finished.
+	 */
+	synchronized Long getDurationPercentile(Description key, int percentile) {
+		TestStatistics statistics= fStatistics.get(key.toString());
+		if (statistics == null || !statistics.hasDurations())
+			return null;
+		return statistics.getDurationPercentile(percentile);
+	}
+
+	/**
+	 * Returns the decayed failure rate of {@code key}, 0 if it never failed
+	 */
+	synchronized double getFailureRate(Description key) {
+		TestStatistics statistics= fStatistics.get(key.toString());
+		return statistics == null ? 0 : statistics.getFailureRate();
+	}
+
+	/**
+	 * Returns the expected number of failures {@code key} finds per second of
+	 * runtime, 0 if it never failed
+	 */
+	synchronized double getFailuresPerSecond(Description key) {
+		TestStatistics statistics= fStatistics.get(key.toString());
+		return statistics == null ? 0 : statistics.getFailuresPerSecond();
 	}
 
 	private final class RememberingListener extends RunListener {
 		private long overallStart= System.currentTimeMillis();
 
-		private Map<Description, Long> starts= new HashMap<Description, Long>();
+		private Map<Description, Long> starts= Collections
+				.synchronizedMap(new HashMap<Description, Long>());
+
+		private Set<Description> failed= Collections
+				.synchronizedSet(new HashSet<Description>());
 
 		@Override
 		public void testStarted(Description description) throws Exception {
@@ -111,13 +278,15 @@ public class MaxHistory implements Serializable {
 		@Override
 		public void testFinished(Description description) throws Exception {
 			long end= System.nanoTime();
-			long start= starts.get(description);
+			long start= starts.remove(description);
 			putTestDuration(description, end - start);
+			putTestOutcome(description, failed.remove(description));
 		}
 
 		@Override
 		public void testFailure(Failure failure) throws Exception {
 			putTestFailureTimestamp(failure.getDescription(), overallStart);
+			failed.add(failure.getDescription());
 		}
 
 		@Override
@@ -133,11 +302,16 @@ public class MaxHistory implements Serializable {
 				return -1;
 			if (isNewTest(o2))
 				return 1;
+			// Then most failures expected per second of runtime first
+			int result= Double.compare(getFailuresPerSecond(o2),
+					getFailuresPerSecond(o1));
+			if (result != 0)
+				return result;
 			// Then most recently failed first
-			int result= getFailure(o2).compareTo(getFailure(o1));
+			result= getFailure(o2).compareTo(getFailure(o1));
 			return result != 0 ? result
 			// Then shorter tests first
-					: getTestDuration(o1).compareTo(getTestDuration(o2));
+					: getMeanDuration(o1).compareTo(getMeanDuration(o2));
 		}
 
 		private Long getFailure(Description key) {
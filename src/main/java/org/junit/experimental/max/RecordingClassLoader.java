@@ -0,0 +1,71 @@
+package org.junit.experimental.max;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loads the classes found on its own class path itself, before asking its
+ * parent, and remembers their names. Everything else, JUnit and libraries
+ * included, comes from the parent. Because every class of the class path is
+ * loaded anew, the names recorded are exactly the classes a test running in
+ * this loader used.
+ *
+ * JUnit's own classes and Hamcrest always come from the parent, even when
+ * they are found on the class path, for example when JUnit is loaded from a
+ * directory: a second copy of them would not match the annotations and
+ * runners of the first.
+ */
+class RecordingClassLoader extends URLClassLoader {
+	private final Set<String> fLoaded= Collections
+			.synchronizedSet(new HashSet<String>());
+
+	private final String fFrameworkLocation;
+
+	RecordingClassLoader(URL[] classPath, ClassLoader parent) {
+		super(classPath, parent);
+		CodeSource junit= RecordingClassLoader.class.getProtectionDomain()
+				.getCodeSource();
+		fFrameworkLocation= junit == null || junit.getLocation() == null ? null
+				: junit.getLocation().toExternalForm();
+	}
+
+	@Override
+	protected synchronized Class<?> loadClass(String name, boolean resolve)
+			throws ClassNotFoundException {
+		Class<?> result= findLoadedClass(name);
+		if (result == null) {
+			if (isFramework(name)
+					|| findResource(name.replace('.', '/') + ".class") == null)
+				return super.loadClass(name, resolve);
+			result= findClass(name);
+			fLoaded.add(name);
+		}
+		if (resolve)
+			resolveClass(result);
+		return result;
+	}
+
+	private boolean isFramework(String name) {
+		if (name.startsWith("org.hamcrest."))
+			return true;
+		if (!name.startsWith("org.junit.") && !name.startsWith("junit."))
+			return false;
+		// Tests in JUnit's packages, but not in JUnit's own jar or
+		// directory, are recorded like any other
+		URL parentCopy= getParent().getResource(name.replace('.', '/')
+				+ ".class");
+		return parentCopy != null
+				&& (fFrameworkLocation == null || parentCopy.toExternalForm()
+						.contains(fFrameworkLocation));
+	}
+
+	Set<String> getLoadedClassNames() {
+		synchronized (fLoaded) {
+			return new HashSet<String>(fLoaded);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package org.junit.experimental.max;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * Remembers which classes each test used, as recorded by an
+ * {@link ImpactRecorder}, so that after a change only the tests that can be
+ * affected by it need to run:
+ *
+ * <pre>
+ * TestImpact impact= TestImpact.forHistory(historyFile);
+ * Request request= Request.aClass(MyTests.class).filterWith(
+ * 		impact.impactedBy(changedClassNames));
+ * </pre>
+ *
+ * The mapping is kept in a file next to the {@link MaxHistory} store.
+ */
+public class TestImpact {
+	private static final byte[] MAGIC= { 'J', 'U', 'I', 'M', 'P', 'A', 'C', 'T' };
+
+	private static final int VERSION= 1;
+
+	/**
+	 * Loads the impact mapping kept next to the {@link MaxHistory} stored at
+	 * {@code storedResults}, or starts an empty one.
+	 */
+	public static TestImpact forHistory(File storedResults) {
+		TestImpact impact= new TestImpact(new File(storedResults.getPath()
+				+ ".impact"));
+		if (impact.fFile.exists())
+			try {
+				impact.load();
+			} catch (IOException e) {
+				e.printStackTrace();
+				impact.fFile.delete();
+				impact.fUsedClasses.clear();
+			}
+		return impact;
+	}
+
+	private final File fFile;
+
+	private final Map<String, Set<String>> fUsedClasses= new HashMap<String, Set<String>>();
+
+	private TestImpact(File file) {
+		fFile= file;
+	}
+
+	/**
+	 * Returns the names of the classes {@code test} used when it was last
+	 * recorded, or null if it has never been recorded.
+	 */
+	public synchronized Set<String> getUsedClasses(Description test) {
+		Set<String> used= fUsedClasses.get(test.toString());
+		return used == null ? null : Collections.unmodifiableSet(used);
+	}
+
+	synchronized void putUsedClasses(Description test, Set<String> classNames) {
+		fUsedClasses.put(test.toString(), new HashSet<String>(classNames));
+	}
+
+	/**
+	 * Returns a filter that runs only the tests that used one of
+	 * {@code changedClassNames} (or one of their nested classes) when they
+	 * were last recorded, and every test that has never been recorded.
+	 */
+	public Filter impactedBy(Collection<String> changedClassNames) {
+		final Set<String> changed= new HashSet<String>(changedClassNames);
+		return new Filter() {
+			@Override
+			public boolean shouldRun(Description description) {
+				if (description.isTest())
+					return isImpacted(description, changed);
+				for (Description each : description.getChildren())
+					if (shouldRun(each))
+						return true;
+				return false;
+			}
+
+			@Override
+			public String describe() {
+				return "tests impacted by " + new TreeSet<String>(changed);
+			}
+		};
+	}
+
+	/**
+	 * @see #impactedBy(Collection)
+	 */
+	public Filter impactedBy(String... changedClassNames) {
+		return impactedBy(Arrays.asList(changedClassNames));
+	}
+
+	private synchronized boolean isImpacted(Description test,
+			Set<String> changed) {
+		Set<String> used= fUsedClasses.get(test.toString());
+		if (used == null)
+			return true;
+		for (String each : used)
+			if (changed.contains(outermostClassName(each))
+					|| changed.contains(each))
+				return true;
+		return false;
+	}
+
+	private static String outermostClassName(String className) {
+		int nested= className.indexOf('$');
+		return nested < 0 ? className : className.substring(0, nested);
+	}
+
+	/**
+	 * Writes the mapping to disk, replacing the previous one.
+	 */
+	public synchronized void save() throws IOException {
+		List<String> classNames= new ArrayList<String>();
+		Map<String, Integer> indexes= new HashMap<String, Integer>();
+		for (Set<String> each : fUsedClasses.values())
+			for (String className : each)
+				if (!indexes.containsKey(className)) {
+					indexes.put(className, classNames.size());
+					classNames.add(className);
+				}
+
+		File temporary= new File(fFile.getPath() + ".tmp");
+		FileOutputStream file= new FileOutputStream(temporary);
+		try {
+			DataOutputStream out= new DataOutputStream(file);
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(classNames.size());
+			for (String each : classNames)
+				out.writeUTF(each);
+			out.writeInt(fUsedClasses.size());
+			for (Map.Entry<String, Set<String>> each : fUsedClasses.entrySet()) {
+				out.writeUTF(each.getKey());
+				out.writeInt(each.getValue().size());
+				for (String className : each.getValue())
+					out.writeInt(indexes.get(className));
+			}
+			out.flush();
+			file.getFD().sync();
+		} finally {
+			file.close();
+		}
+		if (!temporary.renameTo(fFile)) {
+			// Some platforms do not rename over an existing file
+			fFile.delete();
+			if (!temporary.renameTo(fFile))
+				throw new IOException("Could not replace " + fFile);
+		}
+	}
+
+	private void load() throws IOException {
+		DataInputStream in= new DataInputStream(new FileInputStream(fFile));
+		try {
+			byte[] magic= new byte[MAGIC.length];
+			in.readFully(magic);
+			if (!Arrays.equals(magic, MAGIC) || in.readInt() != VERSION)
+				throw new IOException("Not a JUnit Max impact file: " + fFile);
+			String[] classNames= new String[in.readInt()];
+			for (int i= 0; i < classNames.length; i++)
+				classNames[i]= in.readUTF();
+			int tests= in.readInt();
+			for (int i= 0; i < tests; i++) {
+				String test= in.readUTF();
+				int count= in.readInt();
+				Set<String> used= new HashSet<String>(count * 2);
+				for (int j= 0; j < count; j++)
+					used.add(classNames[in.readInt()]);
+				fUsedClasses.put(test, used);
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IOException("Corrupt JUnit Max impact file: " + fFile);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package org.junit.experimental.max;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rolling statistics for one test, kept by {@link MaxHistory}: an
+ * exponentially weighted mean of its duration, percentiles over its most
+ * recent durations, and a failure rate in which each older run counts less
+ * than the one after it. A single slow or fast run on a noisy machine moves
+ * these only a little.
+ */
+class TestStatistics {
+	static final double DURATION_WEIGHT= 0.3;
+
+	static final double FAILURE_WEIGHT= 0.2;
+
+	static final int WINDOW= 16;
+
+	// Runs shorter than this are treated as taking this long, so that a
+	// test's cost never rounds down to nothing
+	private static final double MINIMUM_DURATION= 1000000; // 1 ms
+
+	private final long[] fWindow= new long[WINDOW];
+
+	private int fSamples= 0;
+
+	private double fMeanDuration= 0;
+
+	private double fFailureRate= 0;
+
+	void addDuration(long nanos) {
+		fWindow[fSamples % WINDOW]= nanos;
+		fSamples++;
+		if (fSamples == 1)
+			fMeanDuration= nanos;
+		else
+			fMeanDuration+= DURATION_WEIGHT * (nanos - fMeanDuration);
+	}
+
+	void addOutcome(boolean failed) {
+		fFailureRate+= FAILURE_WEIGHT * ((failed ? 1 : 0) - fFailureRate);
+	}
+
+	void setMeanDuration(double nanos) {
+		fMeanDuration= nanos;
+	}
+
+	void setFailureRate(double rate) {
+		fFailureRate= rate;
+	}
+
+	boolean hasDurations() {
+		return fSamples > 0;
+	}
+
+	/**
+	 * Returns the exponentially weighted mean duration, in nanoseconds
+	 */
+	double getMeanDuration() {
+		return fMeanDuration;
+	}
+
+	/**
+	 * Returns the {@code percentile}th percentile (nearest rank) of the most
+	 * recent {@link #WINDOW} durations, in nanoseconds, or 0 if the test has
+	 * never finished.
+	 */
+	long getDurationPercentile(int percentile) {
+		List<Long> recent= getRecentDurations();
+		if (recent.isEmpty())
+			return 0;
+		long[] sorted= new long[recent.size()];
+		for (int i= 0; i < sorted.length; i++)
+			sorted[i]= recent.get(i);
+		Arrays.sort(sorted);
+		int rank= (int) Math.ceil(percentile / 100.0 * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+	/**
+	 * Returns the decayed failure rate, between 0 (never fails) and 1 (always
+	 * fails)
+	 */
+	double getFailureRate() {
+		return fFailureRate;
+	}
+
+	/**
+	 * Returns the expected number of failures found per second spent running
+	 * this test.
+	 */
+	double getFailuresPerSecond() {
+		return fFailureRate / (Math.max(fMeanDuration, MINIMUM_DURATION) / 1e9);
+	}
+
+	/**
+	 * Returns the most recent durations, oldest first
+	 */
+	List<Long> getRecentDurations() {
+		int count= Math.min(fSamples, WINDOW);
+		List<Long> result= new ArrayList<Long>(count);
+		for (int i= fSamples - count; i < fSamples; i++)
+			result.add(fWindow[i % WINDOW]);
+		return result;
+	}
+}
@@ -0,0 +1,58 @@
+package org.junit.experimental.resources;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a test method, or every test method of a class, uses a shared
+ * resource, such as a port, a file or a static singleton. When tests run in
+ * parallel (see {@link org.junit.experimental.ParallelComputer}), tests that
+ * write the same resource run one at a time, and never while a test reads
+ * it; tests that only read it may run together. Tests that share nothing still
+ * run in parallel.
+ * 
+ * For example:
+<pre>
+	&#064;ResourceLock("port-8080")
+	public static class ServerTest {
+		&#064;Test
+		public void serves() {
+		}
+
+		&#064;ResourceLock(value= "config", mode= Mode.READ)
+		&#064;Test
+		public void readsConfiguration() {
+		}
+	}
+</pre>
+ * 
+ * Use {@link ResourceLocks} to declare more than one resource.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target( { ElementType.TYPE, ElementType.METHOD })
+public @interface ResourceLock {
+	/**
+	 * How a test uses a resource
+	 */
+	enum Mode {
+		/**
+		 * The test only reads the resource: it may run alongside other
+		 * readers
+		 */
+		READ,
+
+		/**
+		 * The test changes the resource: it runs alone with it
+		 */
+		READ_WRITE
+	}
+
+	/**
+	 * The name of the resource
+	 */
+	String value();
+
+	Mode mode() default Mode.READ_WRITE;
+}
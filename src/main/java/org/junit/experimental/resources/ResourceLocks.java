@@ -0,0 +1,23 @@
+package org.junit.experimental.resources;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares several {@link ResourceLock}s on one test method or class:
+ * 
+<pre>
+	&#064;ResourceLocks( { &#064;ResourceLock("database"),
+			&#064;ResourceLock(value= "config", mode= Mode.READ) })
+	&#064;Test
+	public void migrates() {
+	}
+</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target( { ElementType.TYPE, ElementType.METHOD })
+public @interface ResourceLocks {
+	ResourceLock[] value();
+}
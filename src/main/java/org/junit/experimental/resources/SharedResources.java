@@ -0,0 +1,186 @@
+package org.junit.experimental.resources;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.experimental.resources.ResourceLock.Mode;
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * The read/write locks on the resources named by {@link ResourceLock} and
+ * {@link ResourceLocks}, shared by every scheduler of a run. A scheduler
+ * wrapped by {@link #guard(RunnerScheduler)} runs each test only while holding
+ * the locks declared on the test method and on its class. Locks are always
+ * taken in the order of their names, so tests cannot deadlock on them.
+ *
+ * A scheduler wrapped by {@link #guardWhole(RunnerScheduler)} instead holds,
+ * around each whole child such as a test class, every lock any of its tests
+ * declares, so that {@code @BeforeClass}, {@code @AfterClass} and
+ * {@code @ClassRule} code runs under the locks too. The tests of such a child
+ * then only take their locks against each other.
+ */
+public class SharedResources {
+	private final ConcurrentMap<String, ReadWriteLock> fLocks= new ConcurrentHashMap<String, ReadWriteLock>();
+
+	// The locks tests of a child held by guardWhole take against each other
+	private final ConcurrentMap<Description, SharedResources> fHeldBy= new ConcurrentHashMap<Description, SharedResources>();
+
+	/**
+	 * Returns a scheduler that passes children on to {@code delegate}, each
+	 * test wrapped so that it runs holding the locks it declares
+	 */
+	public RunnerScheduler guard(final RunnerScheduler delegate) {
+		return new RunnerScheduler() {
+			public void schedule(Runnable childStatement) {
+				delegate.schedule(guard(childStatement));
+			}
+
+			public void finished() {
+				delegate.finished();
+			}
+		};
+	}
+
+	/**
+	 * Returns a scheduler that passes children on to {@code delegate}, each
+	 * wrapped so that it runs holding the locks of all its tests
+	 */
+	public RunnerScheduler guardWhole(final RunnerScheduler delegate) {
+		return new RunnerScheduler() {
+			public void schedule(Runnable childStatement) {
+				delegate.schedule(guardWhole(childStatement));
+			}
+
+			public void finished() {
+				delegate.finished();
+			}
+		};
+	}
+
+	private Runnable guard(Runnable childStatement) {
+		if (!(childStatement instanceof Describable))
+			return childStatement;
+		Description description= ((Describable) childStatement)
+				.getDescription();
+		if (!description.isTest())
+			return childStatement;
+		SharedResources heldBy= fHeldBy.get(description);
+		if (heldBy != null)
+			return heldBy.lockAround(childStatement, heldBy.locksFor(description));
+		return lockAround(childStatement, locksFor(description));
+	}
+
+	private Runnable guardWhole(final Runnable childStatement) {
+		if (!(childStatement instanceof Describable))
+			return childStatement;
+		Description description= ((Describable) childStatement)
+				.getDescription();
+		if (description.isTest())
+			return guard(childStatement);
+		final List<Description> tests= new ArrayList<Description>();
+		collectTests(description, tests);
+		Map<String, Mode> modes= new TreeMap<String, Mode>();
+		for (Description each : tests)
+			addModes(each, modes);
+		if (modes.isEmpty())
+			return childStatement;
+		SharedResources inner= new SharedResources();
+		for (Description each : tests)
+			fHeldBy.put(each, inner);
+		final Runnable locked= lockAround(childStatement, locks(modes));
+		return new Runnable() {
+			public void run() {
+				try {
+					locked.run();
+				} finally {
+					for (Description each : tests)
+						fHeldBy.remove(each);
+				}
+			}
+		};
+	}
+
+	private static void collectTests(Description description,
+			List<Description> tests) {
+		if (description.isTest())
+			tests.add(description);
+		for (Description each : description.getChildren())
+			collectTests(each, tests);
+	}
+
+	private Runnable lockAround(final Runnable childStatement,
+			final List<Lock> locks) {
+		if (locks.isEmpty())
+			return childStatement;
+		return new Runnable() {
+			public void run() {
+				for (Lock each : locks)
+					each.lock();
+				try {
+					childStatement.run();
+				} finally {
+					for (int i= locks.size() - 1; i >= 0; i--)
+						locks.get(i).unlock();
+				}
+			}
+		};
+	}
+
+	private List<Lock> locksFor(Description test) {
+		// Sorted by name; READ_WRITE wins when a resource is declared twice
+		Map<String, Mode> modes= new TreeMap<String, Mode>();
+		addModes(test, modes);
+		return locks(modes);
+	}
+
+	private static void addModes(Description test, Map<String, Mode> modes) {
+		Class<?> testClass= test.getTestClass();
+		if (testClass != null)
+			addModes(testClass.getAnnotations(), modes);
+		addModes(test.getAnnotations().toArray(new Annotation[0]), modes);
+	}
+
+	private List<Lock> locks(Map<String, Mode> modes) {
+		List<Lock> locks= new ArrayList<Lock>();
+		for (Map.Entry<String, Mode> each : modes.entrySet()) {
+			ReadWriteLock lock= lockFor(each.getKey());
+			locks.add(each.getValue() == Mode.READ ? lock.readLock() : lock
+					.writeLock());
+		}
+		return locks;
+	}
+
+	private static void addModes(Annotation[] annotations,
+			Map<String, Mode> modes) {
+		for (Annotation each : annotations)
+			if (each instanceof ResourceLock)
+				addMode((ResourceLock) each, modes);
+			else if (each instanceof ResourceLocks)
+				for (ResourceLock lock : ((ResourceLocks) each).value())
+					addMode(lock, modes);
+	}
+
+	private static void addMode(ResourceLock lock, Map<String, Mode> modes) {
+		if (modes.get(lock.value()) != Mode.READ_WRITE)
+			modes.put(lock.value(), lock.mode());
+	}
+
+	private ReadWriteLock lockFor(String resource) {
+		ReadWriteLock lock= fLocks.get(resource);
+		if (lock == null) {
+			fLocks.putIfAbsent(resource, new ReentrantReadWriteLock());
+			lock= fLocks.get(resource);
+		}
+		return lock;
+	}
+}
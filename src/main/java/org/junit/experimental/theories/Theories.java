@@ -55,7 +55,7 @@ public class Theories extends BlockJUnit4ClassRunner {
 	
 	@Override
 	protected List<FrameworkMethod> computeTestMethods() {
-		List<FrameworkMethod> testMethods= super.computeTestMethods();
+		List<FrameworkMethod> testMethods= new ArrayList<FrameworkMethod>(super.computeTestMethods());
 		List<FrameworkMethod> theoryMethods= getTestClass().getAnnotatedMethods(Theory.class);
 		testMethods.removeAll(theoryMethods);
 		testMethods.addAll(theoryMethods);
@@ -29,12 +29,11 @@ public abstract class ComparisonCriteria {
 			throws ArrayComparisonFailure {
 		if (expecteds == actuals)
 			return;
-		String header= message == null ? "" : message + ": ";
-
 		int expectedsLength= assertArraysAreSameLength(expecteds,
-				actuals, header);
+				actuals, message);
 
-		for (int i= 0; i < expectedsLength; i++) {
+		int start= firstPossibleDifference(expecteds, actuals, expectedsLength);
+		for (int i= start; i < expectedsLength; i++) {
 			Object expected= Array.get(expecteds, i);
 			Object actual= Array.get(actuals, i);
 
@@ -49,7 +48,7 @@ public abstract class ComparisonCriteria {
 				try {
 					assertElementsEqual(expected, actual);
 				} catch (AssertionError e) {
-					throw new ArrayComparisonFailure(header, e, i);
+					throw new ArrayComparisonFailure(header(message), e, i);
 				}
 		}
 	}
@@ -58,19 +57,35 @@ public abstract class ComparisonCriteria {
 		return expected != null && expected.getClass().isArray();
 	}
 
+	private static String header(String message) {
+		return message == null ? "" : message + ": ";
+	}
+
 	private int assertArraysAreSameLength(Object expecteds,
-			Object actuals, String header) {
+			Object actuals, String message) {
 		if (expecteds == null)
-			Assert.fail(header + "expected array was null");
+			Assert.fail(header(message) + "expected array was null");
 		if (actuals == null)
-			Assert.fail(header + "actual array was null");
+			Assert.fail(header(message) + "actual array was null");
 		int actualsLength= Array.getLength(actuals);
 		int expectedsLength= Array.getLength(expecteds);
 		if (actualsLength != expectedsLength)
-			Assert.fail(header + "array lengths differed, expected.length="
+			Assert.fail(header(message) + "array lengths differed, expected.length="
 					+ expectedsLength + " actual.length=" + actualsLength);
 		return expectedsLength;
 	}
 
+	/**
+	 * Returns an index before which all elements of {@code expecteds} and
+	 * {@code actuals}, both of length {@code length}, are known to be equal
+	 * enough. Elements from there on are compared one by one with
+	 * {@link #assertElementsEqual(Object, Object)}. Subclasses can skip
+	 * comparing equal primitive elements boxed; the default returns 0.
+	 */
+	protected int firstPossibleDifference(Object expecteds, Object actuals,
+			int length) {
+		return 0;
+	}
+
 	protected abstract void assertElementsEqual(Object expected, Object actual);
 }
@@ -3,6 +3,12 @@ package org.junit.internal;
 import org.junit.Assert;
 
 public class ExactComparisonCriteria extends ComparisonCriteria {
+	@Override
+	protected int firstPossibleDifference(Object expecteds, Object actuals,
+			int length) {
+		return PrimitiveArrays.firstDifference(expecteds, actuals, length);
+	}
+
 	@Override
 	protected void assertElementsEqual(Object expected, Object actual) {
 		Assert.assertEquals(expected, actual);
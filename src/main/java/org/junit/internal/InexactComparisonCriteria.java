@@ -9,6 +9,13 @@ public class InexactComparisonCriteria extends ComparisonCriteria {
 		fDelta= delta;
 	}
 
+	@Override
+	protected int firstPossibleDifference(Object expecteds, Object actuals,
+			int length) {
+		return PrimitiveArrays.firstDifference(expecteds, actuals, length,
+				fDelta);
+	}
+
 	@Override
 	protected void assertElementsEqual(Object expected, Object actual) {
 		if (expected instanceof Double)
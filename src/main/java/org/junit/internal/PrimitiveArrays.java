@@ -0,0 +1,145 @@
+package org.junit.internal;
+
+import java.util.Arrays;
+
+/**
+ * Finds the first difference between two arrays of the same primitive type
+ * without boxing their elements. Equal arrays are compared with
+ * {@link Arrays#equals}, which the JIT compiles to a vectorized loop on modern
+ * VMs; the element-by-element scan only runs once they are known to differ.
+ */
+class PrimitiveArrays {
+	/**
+	 * Returns the index of the first element in which {@code expecteds} and
+	 * {@code actuals}, both of length {@code length}, differ exactly, or
+	 * {@code length} if they do not. Returns 0 unless both are arrays of the
+	 * same primitive type.
+	 */
+	static int firstDifference(Object expecteds, Object actuals, int length) {
+		if (expecteds.getClass() != actuals.getClass()
+				|| !expecteds.getClass().getComponentType().isPrimitive())
+			return 0;
+		if (expecteds instanceof byte[])
+			return firstDifference((byte[]) expecteds, (byte[]) actuals, length);
+		if (expecteds instanceof int[])
+			return firstDifference((int[]) expecteds, (int[]) actuals, length);
+		if (expecteds instanceof long[])
+			return firstDifference((long[]) expecteds, (long[]) actuals, length);
+		if (expecteds instanceof char[])
+			return firstDifference((char[]) expecteds, (char[]) actuals, length);
+		if (expecteds instanceof short[])
+			return firstDifference((short[]) expecteds, (short[]) actuals, length);
+		if (expecteds instanceof boolean[])
+			return firstDifference((boolean[]) expecteds, (boolean[]) actuals, length);
+		if (expecteds instanceof double[])
+			return firstDifference((double[]) expecteds, (double[]) actuals, length);
+		return firstDifference((float[]) expecteds, (float[]) actuals, length);
+	}
+
+	/**
+	 * Returns the index of the first element in which {@code expecteds} and
+	 * {@code actuals}, both of length {@code length}, differ by more than
+	 * {@code delta}, or {@code length} if none does. Returns 0 unless both are
+	 * double or both are float arrays.
+	 */
+	static int firstDifference(Object expecteds, Object actuals, int length,
+			double delta) {
+		if (expecteds instanceof double[] && actuals instanceof double[]) {
+			double[] e= (double[]) expecteds;
+			double[] a= (double[]) actuals;
+			for (int i= 0; i < length; i++)
+				if (isDifferent(e[i], a[i], delta))
+					return i;
+			return length;
+		}
+		if (expecteds instanceof float[] && actuals instanceof float[]) {
+			float[] e= (float[]) expecteds;
+			float[] a= (float[]) actuals;
+			for (int i= 0; i < length; i++)
+				if (isDifferent(e[i], a[i], delta))
+					return i;
+			return length;
+		}
+		return 0;
+	}
+
+	// Same as Assert.assertEquals(double, double, double)
+	private static boolean isDifferent(double expected, double actual,
+			double delta) {
+		return Double.compare(expected, actual) != 0
+				&& !(Math.abs(expected - actual) <= delta);
+	}
+
+	private static int firstDifference(byte[] e, byte[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (e[i] == a[i])
+			i++;
+		return i;
+	}
+
+	private static int firstDifference(int[] e, int[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (e[i] == a[i])
+			i++;
+		return i;
+	}
+
+	private static int firstDifference(long[] e, long[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (e[i] == a[i])
+			i++;
+		return i;
+	}
+
+	private static int firstDifference(char[] e, char[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (e[i] == a[i])
+			i++;
+		return i;
+	}
+
+	private static int firstDifference(short[] e, short[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (e[i] == a[i])
+			i++;
+		return i;
+	}
+
+	private static int firstDifference(boolean[] e, boolean[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (e[i] == a[i])
+			i++;
+		return i;
+	}
+
+	// Arrays.equals and Double.equals agree: NaNs are equal, 0.0 and -0.0 not
+	private static int firstDifference(double[] e, double[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (Double.doubleToLongBits(e[i]) == Double.doubleToLongBits(a[i]))
+			i++;
+		return i;
+	}
+
+	private static int firstDifference(float[] e, float[] a, int length) {
+		if (Arrays.equals(e, a))
+			return length;
+		int i= 0;
+		while (Float.floatToIntBits(e[i]) == Float.floatToIntBits(a[i]))
+			i++;
+		return i;
+	}
+}
@@ -58,15 +58,21 @@ public class TextListener extends RunListener {
 
 	protected void printFailures(Result result) {
 		List<Failure> failures= result.getFailures();
-		if (failures.size() == 0)
+		int count= result.getFailureCount();
+		if (count == 0)
 			return;
-		if (failures.size() == 1)
-			getWriter().println("There was " + failures.size() + " failure:");
+		if (count == 1)
+			getWriter().println("There was " + count + " failure:");
 		else
-			getWriter().println("There were " + failures.size() + " failures:");
+			getWriter().println("There were " + count + " failures:");
 		int i= 1;
 		for (Failure each : failures)
 			printFailure(each, "" + i++);
+		int omitted= result.getOmittedFailureCount();
+		if (omitted > 0)
+			getWriter().println(omitted + " more not shown");
+		if (result.getFailureSpillFile() != null)
+			getWriter().println("All failures were written to " + result.getFailureSpillFile());
 	}
 
 	protected void printFailure(Failure each, String prefix) {
@@ -85,6 +91,8 @@ public class TextListener extends RunListener {
 			getWriter().println("FAILURES!!!");
 			getWriter().println("Tests run: " + result.getRunCount() + ",  Failures: " + result.getFailureCount());
 		}
+		if (result.getNotRunCount() > 0)
+			getWriter().println("Stopped early: " + result.getNotRunCount() + " test" + (result.getNotRunCount() == 1 ? "" : "s") + " not run");
 		getWriter().println();
 	}
 
@@ -1,7 +1,10 @@
 package org.junit.internal.runners;
 
+import junit.extensions.ActiveTestSuite;
+import junit.extensions.PooledActiveTestSuite;
 import junit.extensions.TestDecorator;
 import junit.framework.AssertionFailedError;
+import junit.framework.ConcurrentTestResult;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestListener;
@@ -78,11 +81,28 @@ public class JUnit38ClassRunner extends Runner implements Filterable, Sortable {
 
 	@Override
 	public void run(RunNotifier notifier) {
-		TestResult result= new TestResult();
+		// Only results of tests run on several threads need to scale, and
+		// ConcurrentTestResult leaves TestResult's protected fields empty
+		TestResult result= runsInParallel(getTest()) ? new ConcurrentTestResult()
+				: new TestResult();
 		result.addListener(createAdaptingListener(notifier));
 		getTest().run(result);
 	}
 
+	private static boolean runsInParallel(Test test) {
+		if (test instanceof ActiveTestSuite || test instanceof PooledActiveTestSuite)
+			return true;
+		if (test instanceof TestDecorator)
+			return runsInParallel(((TestDecorator) test).getTest());
+		if (test instanceof TestSuite) {
+			TestSuite suite= (TestSuite) test;
+			for (int i= 0; i < suite.testCount(); i++)
+				if (runsInParallel(suite.testAt(i)))
+					return true;
+		}
+		return false;
+	}
+
 	public TestListener createAdaptingListener(final RunNotifier notifier) {
 		return new OldTestClassAdaptingListener(notifier);
 	}
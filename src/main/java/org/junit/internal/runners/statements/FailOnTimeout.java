@@ -1,46 +1,153 @@
 /**
- * 
+ *
  */
 package org.junit.internal.runners.statements;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.runners.model.Statement;
 
+/**
+ * Runs a statement on the calling thread and fails if it does not finish
+ * within the timeout. A single watchdog thread, shared by every timed
+ * statement in the JVM, interrupts the statement when its timeout expires, so
+ * a timeout costs no thread of its own, and the statement sees the same
+ * thread locals and context class loader as one without a timeout. If the
+ * statement ignores the interrupt for {@value #STOP_GRACE_MILLIS} more
+ * milliseconds, the watchdog stops its thread with {@link Thread#stop()}; on
+ * VMs that no longer support that, the run waits for the statement.
+ *
+ * Optionally, a {@link ThreadDump} of the whole JVM, taken when the timeout
+ * expires, is attached as the cause of the failure. Setting the system
+ * property {@value #THREAD_DUMP_PROPERTY} to {@code true} turns this on for
+ * every {@code @Test(timeout=...)}.
+ */
 public class FailOnTimeout extends Statement {
-	private Statement fNext;
+	private static final ScheduledExecutorService WATCHDOG= Executors
+			.newSingleThreadScheduledExecutor(new WatchdogThreadFactory());
 
-	private final long fTimeout;
+	private static final long STOP_GRACE_MILLIS= 100;
 
-	private boolean fFinished= false;
+	private final Statement fNext;
+
+	public static final String THREAD_DUMP_PROPERTY= "junit.timeout.threadDump";
+
+	private final long fTimeout;
 
-	private Throwable fThrown= null;
+	private final boolean fThreadDump;
 
 	public FailOnTimeout(Statement next, long timeout) {
+		this(next, timeout, Boolean.getBoolean(THREAD_DUMP_PROPERTY));
+	}
+
+	/**
+	 * @param threadDump
+	 *            whether to attach a {@link ThreadDump} to a timeout
+	 */
+	public FailOnTimeout(Statement next, long timeout, boolean threadDump) {
 		fNext= next;
 		fTimeout= timeout;
+		fThreadDump= threadDump;
 	}
 
 	@Override
 	public void evaluate() throws Throwable {
-		Thread thread= new Thread() {
-			@Override
-			public void run() {
-				try {
-					fNext.evaluate();
-					fFinished= true;
-				} catch (Throwable e) {
-					fThrown= e;
-				}
-			}
-		};
-		thread.start();
-		thread.join(fTimeout);
-		if (fFinished)
+		if (fTimeout <= 0) {
+			fNext.evaluate(); // like Thread.join(0), wait forever
 			return;
-		if (fThrown != null)
-			throw fThrown;
+		}
+		Watch watch= new Watch(Thread.currentThread());
+		ScheduledFuture<?> expiry= WATCHDOG.schedule(watch, fTimeout,
+				TimeUnit.MILLISECONDS);
+		Throwable thrown= null;
+		boolean inTime;
+		try {
+			try {
+				fNext.evaluate();
+			} catch (Throwable e) {
+				thrown= e;
+			}
+			inTime= watch.finish();
+		} catch (ThreadDeath e) {
+			// The watchdog stops a thread at most once
+			inTime= watch.finish();
+		}
+		expiry.cancel(false);
+		if (!inTime) {
+			Thread.interrupted(); // clear the watchdog's interrupt
+			throw timeoutException(watch.fStackTrace, watch.fDump);
+		}
+		if (thrown != null)
+			throw thrown;
+	}
+
+	private Exception timeoutException(StackTraceElement[] stackTrace,
+			ThreadDump dump) {
 		Exception exception= new Exception(String.format(
-				"test timed out after %d milliseconds", fTimeout));
-		exception.setStackTrace(thread.getStackTrace());
-		throw exception;
+				"test timed out after %d milliseconds", fTimeout), dump);
+		exception.setStackTrace(stackTrace);
+		return exception;
+	}
+
+	private class Watch implements Runnable {
+		private final Thread fThread;
+
+		private boolean fFinished= false;
+
+		private boolean fTimedOut= false;
+
+		// Written by the watchdog before finish() returns false
+		private StackTraceElement[] fStackTrace;
+
+		private ThreadDump fDump;
+
+		Watch(Thread thread) {
+			fThread= thread;
+		}
+
+		public synchronized void run() {
+			if (fFinished)
+				return;
+			fTimedOut= true;
+			fStackTrace= fThread.getStackTrace();
+			fDump= fThreadDump ? ThreadDump.capture() : null;
+			fThread.interrupt();
+			WATCHDOG.schedule(new Runnable() {
+				public void run() {
+					stopIfRunning();
+				}
+			}, STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+		}
+
+		@SuppressWarnings("deprecation")
+		private synchronized void stopIfRunning() {
+			if (fFinished)
+				return;
+			try {
+				fThread.stop();
+			} catch (UnsupportedOperationException e) {
+				// removed in newer VMs: wait for the statement
+			}
+		}
+
+		/**
+		 * Returns whether the statement finished before the timeout
+		 */
+		synchronized boolean finish() {
+			fFinished= true;
+			return !fTimedOut;
+		}
+	}
+
+	private static class WatchdogThreadFactory implements ThreadFactory {
+		public Thread newThread(Runnable r) {
+			Thread thread= new Thread(r, "FailOnTimeout-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		}
 	}
-}
\ No newline at end of file
+}
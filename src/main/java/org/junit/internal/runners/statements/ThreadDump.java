@@ -0,0 +1,79 @@
+package org.junit.internal.runners.statements;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * A snapshot of every live thread, taken through {@link ThreadMXBean} without
+ * stopping the JVM: each thread's state and stack, the monitor it is waiting
+ * for and the thread that owns it, and any threads deadlocked on monitors.
+ * {@link FailOnTimeout} attaches one as the cause of a timeout, where it shows
+ * up in the failure's trace.
+ */
+public class ThreadDump extends Exception {
+	private static final long serialVersionUID= 1L;
+
+	/**
+	 * Takes a thread dump now
+	 */
+	public static ThreadDump capture() {
+		ThreadMXBean threads= ManagementFactory.getThreadMXBean();
+		long[] deadlocked= threads.findMonitorDeadlockedThreads();
+		ThreadInfo[] infos= threads.getThreadInfo(threads.getAllThreadIds(),
+				Integer.MAX_VALUE);
+		return new ThreadDump(format(infos, deadlocked), deadlocked);
+	}
+
+	private final long[] fDeadlockedThreadIds;
+
+	private ThreadDump(String dump, long[] deadlocked) {
+		super(dump);
+		fDeadlockedThreadIds= deadlocked == null ? new long[0] : deadlocked;
+		setStackTrace(new StackTraceElement[0]);
+	}
+
+	/**
+	 * Returns the ids of the threads that were deadlocked waiting for each
+	 * other's monitors, empty if there were none
+	 */
+	public long[] getDeadlockedThreadIds() {
+		return fDeadlockedThreadIds.clone();
+	}
+
+	private static String format(ThreadInfo[] infos, long[] deadlocked) {
+		StringBuilder dump= new StringBuilder("Full thread dump");
+		if (deadlocked != null) {
+			Arrays.sort(deadlocked);
+			dump.append(", ").append(deadlocked.length).append(
+					" threads deadlocked");
+		}
+		dump.append(':');
+		for (ThreadInfo each : infos)
+			if (each != null)
+				append(dump, each, deadlocked != null
+						&& Arrays.binarySearch(deadlocked, each.getThreadId()) >= 0);
+		return dump.toString();
+	}
+
+	private static void append(StringBuilder dump, ThreadInfo info,
+			boolean deadlocked) {
+		dump.append("\n\n\"").append(info.getThreadName()).append("\" Id=")
+				.append(info.getThreadId()).append(' ').append(
+						info.getThreadState());
+		if (info.getLockName() != null)
+			dump.append(" on ").append(info.getLockName());
+		if (info.getLockOwnerName() != null)
+			dump.append(" owned by \"").append(info.getLockOwnerName())
+					.append("\" Id=").append(info.getLockOwnerId());
+		if (info.isSuspended())
+			dump.append(" (suspended)");
+		if (info.isInNative())
+			dump.append(" (in native)");
+		if (deadlocked)
+			dump.append(" DEADLOCKED");
+		for (StackTraceElement each : info.getStackTrace())
+			dump.append("\n\tat ").append(each);
+	}
+}
@@ -36,14 +36,26 @@ import org.junit.runners.model.Statement;
 public class Timeout implements MethodRule {
 	private final int fMillis;
 
+	private final boolean fThreadDump;
+
 	/**
 	 * @param millis the millisecond timeout
 	 */
 	public Timeout(int millis) {
+		this(millis, Boolean.getBoolean(FailOnTimeout.THREAD_DUMP_PROPERTY));
+	}
+
+	/**
+	 * @param millis the millisecond timeout
+	 * @param threadDump if true, a test that times out fails with a dump of
+	 * every thread, the locks they wait for and any deadlock, as the cause
+	 */
+	public Timeout(int millis, boolean threadDump) {
 		fMillis= millis;
+		fThreadDump= threadDump;
 	}
 
 	public Statement apply(Statement base, FrameworkMethod method, Object target) {
-		return new FailOnTimeout(base, fMillis);
+		return new FailOnTimeout(base, fMillis, fThreadDump);
 	}
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.junit.runner;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,7 +26,9 @@ import java.util.regex.Pattern;
  * @see org.junit.runner.Runner
  */
 public class Description {
-	
+	private static final Pattern METHOD_AND_CLASS_NAME_PATTERN= Pattern
+			.compile("(.*)\\((.*)\\)");
+
 	/**
 	 * Create a <code>Description</code> named <code>name</code>.
 	 * Generally, you will add children to this <code>Description</code>.
@@ -34,9 +37,22 @@ public class Description {
 	 * @return a <code>Description</code> named <code>name</code>
 	 */
 	public static Description createSuiteDescription(String name, Annotation... annotations) {
+		return createSuiteDescription(name, name, annotations);
+	}
+
+	/**
+	 * Create a <code>Description</code> named <code>name</code>, identified by
+	 * <code>uniqueId</code> rather than by its name.
+	 * Generally, you will add children to this <code>Description</code>.
+	 * @param name the name of the <code>Description</code> 
+	 * @param uniqueId an id that distinguishes this description from all others in the run
+	 * @param annotations 
+	 * @return a <code>Description</code> named <code>name</code>
+	 */
+	public static Description createSuiteDescription(String name, Serializable uniqueId, Annotation... annotations) {
 		if (name.length() == 0)
 			throw new IllegalArgumentException("name must have non-zero length");
-		return new Description(name, annotations);
+		return new Description(null, null, null, name, uniqueId, annotations);
 	}
 
 	/**
@@ -48,7 +64,9 @@ public class Description {
 	 * @return a <code>Description</code> named <code>name</code>
 	 */
 	public static Description createTestDescription(Class<?> clazz, String name, Annotation... annotations) {
-		return new Description(String.format("%s(%s)", name, clazz.getName()), annotations);
+		String displayName= formatDisplayName(name, clazz.getName());
+		return new Description(clazz, clazz.getName(), name, displayName,
+				displayName, annotations);
 	}
 
 	/**
@@ -63,35 +81,95 @@ public class Description {
 		return createTestDescription(clazz, name, new Annotation[0]);
 	}
 
+	/**
+	 * Create a <code>Description</code> of a single test named <code>name</code> in the class
+	 * named <code>className</code>, without loading that class.
+	 * Generally, this will be a leaf <code>Description</code>.
+	 * @param className the name of the class of the test
+	 * @param name the name of the test (a method name for test annotated with {@link org.junit.Test})
+	 * @param annotations meta-data about the test, for downstream interpreters
+	 * @return a <code>Description</code> named <code>name</code>
+	 */
+	public static Description createTestDescription(String className, String name, Annotation... annotations) {
+		String displayName= formatDisplayName(name, className);
+		return new Description(null, className, name, displayName, displayName,
+				annotations);
+	}
+
+	/**
+	 * Create a <code>Description</code> of a single test named <code>name</code> in the class
+	 * named <code>className</code>, identified by <code>uniqueId</code> rather than by its name.
+	 * Generally, this will be a leaf <code>Description</code>.
+	 * @param className the name of the class of the test
+	 * @param name the name of the test (a method name for test annotated with {@link org.junit.Test})
+	 * @param uniqueId an id that distinguishes this description from all others in the run
+	 * @return a <code>Description</code> named <code>name</code>
+	 */
+	public static Description createTestDescription(String className, String name, Serializable uniqueId) {
+		return new Description(null, className, name, formatDisplayName(name,
+				className), uniqueId, new Annotation[0]);
+	}
+
+	private static String formatDisplayName(String name, String className) {
+		return String.format("%s(%s)", name, className);
+	}
+
 	/**
 	 * Create a <code>Description</code> named after <code>testClass</code>
 	 * @param testClass A {@link Class} containing tests 
 	 * @return a <code>Description</code> of <code>testClass</code>
 	 */
 	public static Description createSuiteDescription(Class<?> testClass) {
-		return new Description(testClass.getName(), testClass.getAnnotations());
+		return new Description(testClass, testClass.getName(), null,
+				testClass.getName(), testClass.getName(),
+				testClass.getAnnotations());
 	}
 	
 	/**
 	 * Describes a Runner which runs no tests
 	 */
-	public static final Description EMPTY= new Description("No Tests");
+	public static final Description EMPTY= new Description(null, null, null,
+			"No Tests", "No Tests", new Annotation[0]);
 	
 	/**
 	 * Describes a step in the test-running mechanism that goes so wrong no
 	 * other description can be used (for example, an exception thrown from a Runner's
 	 * constructor
 	 */
-	public static final Description TEST_MECHANISM= new Description("Test mechanism");
+	public static final Description TEST_MECHANISM= new Description(null,
+			null, null, "Test mechanism", "Test mechanism", new Annotation[0]);
 	
 	private final ArrayList<Description> fChildren= new ArrayList<Description>();
 	private final String fDisplayName;
+
+	private final Serializable fUniqueId;
 	
 	private final Annotation[] fAnnotations;
+
+	// Known at creation time for test and class descriptions; otherwise
+	// parsed from the display name on first use
+	private volatile boolean fNamesKnown;
+	private String fClassName;
+	private String fMethodName;
+
+	private volatile Class<?> fTestClass;
+	private volatile boolean fTestClassResolved;
+
+	private int fHashCode; // Computed on first use; 0 until then
 	
-	private Description(final String displayName, Annotation... annotations) {
+	private Description(Class<?> testClass, String className,
+			String methodName, String displayName, Serializable uniqueId,
+			Annotation... annotations) {
+		if (uniqueId == null)
+			throw new IllegalArgumentException("uniqueId must not be null");
 		fDisplayName= displayName;
+		fUniqueId= uniqueId;
 		fAnnotations= annotations;
+		fClassName= className;
+		fMethodName= methodName;
+		fNamesKnown= className != null;
+		fTestClass= testClass;
+		fTestClassResolved= testClass != null;
 	}
 
 	/**
@@ -142,18 +220,35 @@ public class Description {
 		return result;
 	}
 
+	/**
+	 * Returns the hash of this description's unique id, computed once.
+	 */
 	@Override
 	public int hashCode() {
-		return getDisplayName().hashCode();
+		int hash= fHashCode;
+		if (hash == 0) {
+			hash= fUniqueId.hashCode();
+			fHashCode= hash;
+		}
+		return hash;
 	}
 
+	/**
+	 * Two descriptions are equal if they have equal unique ids (by default,
+	 * their display names). Their children are not compared, so comparing
+	 * descriptions, and looking them up in hash-based collections, takes
+	 * constant time regardless of the size of the tree below them. Give
+	 * suites that share a display name distinct ids with
+	 * {@link #createSuiteDescription(String, Serializable, Annotation...)}.
+	 */
 	@Override
 	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
 		if (!(obj instanceof Description))
 			return false;
 		Description d = (Description) obj;
-		return getDisplayName().equals(d.getDisplayName())
-				&& getChildren().equals(d.getChildren());
+		return hashCode() == d.hashCode() && fUniqueId.equals(d.fUniqueId);
 	}
 	
 	@Override
@@ -165,7 +260,7 @@ public class Description {
 	 * @return true if this is a description of a Runner that runs no tests
 	 */
 	public boolean isEmpty() {
-		return equals(EMPTY);
+		return equals(EMPTY) && getChildren().isEmpty();
 	}
 
 	/**
@@ -173,7 +268,11 @@ public class Description {
 	 * children will be added back)
 	 */
 	public Description childlessCopy() {
-		return new Description(fDisplayName, fAnnotations);
+		Description copy= new Description(fTestClass, fNamesKnown ? fClassName
+				: null, fNamesKnown ? fMethodName : null, fDisplayName,
+				fUniqueId, fAnnotations);
+		copy.fTestClassResolved= fTestClassResolved;
+		return copy;
 	}
 
 	/**
@@ -199,6 +298,14 @@ public class Description {
 	 * the class of the test instance.
 	 */
 	public Class<?> getTestClass() {
+		if (!fTestClassResolved) {
+			fTestClass= loadTestClass();
+			fTestClassResolved= true;
+		}
+		return fTestClass;
+	}
+
+	private Class<?> loadTestClass() {
 		String name= getClassName();
 		if (name == null)
 			return null;
@@ -214,10 +321,8 @@ public class Description {
 	 * the name of the class of the test instance
 	 */
 	public String getClassName() {
-		Matcher matcher= methodStringMatcher();
-		return matcher.matches()
-			? matcher.group(2)
-			: toString();
+		parseNames();
+		return fClassName;
 	}
 	
 	/**
@@ -225,17 +330,21 @@ public class Description {
 	 * the name of the method (or null if not)
 	 */
 	public String getMethodName() {
-		return parseMethod();
+		parseNames();
+		return fMethodName;
 	}
 
-	private String parseMethod() {
-		Matcher matcher= methodStringMatcher();
-		if (matcher.matches())
-			return matcher.group(1);
-		return null;
-	}
-
-	private Matcher methodStringMatcher() {
-		return Pattern.compile("(.*)\\((.*)\\)").matcher(toString());
+	private void parseNames() {
+		if (fNamesKnown)
+			return;
+		Matcher matcher= METHOD_AND_CLASS_NAME_PATTERN.matcher(toString());
+		if (matcher.matches()) {
+			fMethodName= matcher.group(1);
+			fClassName= matcher.group(2);
+		} else {
+			fMethodName= null;
+			fClassName= toString();
+		}
+		fNamesKnown= true;
 	}
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package org.junit.runner;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +13,7 @@ import org.junit.internal.runners.JUnit38ClassRunner;
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
 import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
 
 /**
  * <code>JUnitCore</code> is a facade for running tests. It supports running JUnit 4 tests, 
@@ -27,6 +30,15 @@ import org.junit.runner.notification.RunNotifier;
 public class JUnitCore {
 	private RunNotifier fNotifier;
 
+	private StopPolicy fStopPolicy= null;
+
+	// Failures kept in memory when a spill file is set and no other bound
+	private static final int DEFAULT_RETAINED_WITH_SPILL= 100;
+
+	private int fMaxRetainedFailures= Integer.MAX_VALUE;
+
+	private File fFailureSpillFile= null;
+
 	/**
 	 * Create a new <code>JUnitCore</code> to run tests.
 	 */
@@ -149,19 +161,77 @@ public class JUnitCore {
 	 * Do not use. Testing purposes only.
 	 */
 	public Result run(Runner runner) {
-		Result result= new Result();
+		Result result= createResult();
 		RunListener listener= result.createListener();
 		fNotifier.addFirstListener(listener);
 		try {
 			fNotifier.fireTestRunStarted(runner.getDescription());
-			runner.run(fNotifier);
+			if (fStopPolicy == null)
+				runner.run(fNotifier);
+			else
+				runStoppably(runner, result);
 			fNotifier.fireTestRunFinished(result);
 		} finally {
 			removeListener(listener);
+			result.closeSpill();
 		}
 		return result;
 	}
 	
+	private Result createResult() {
+		if (fMaxRetainedFailures == Integer.MAX_VALUE && fFailureSpillFile == null)
+			return new Result();
+		int maxRetained= fMaxRetainedFailures;
+		if (fFailureSpillFile != null && maxRetained == Integer.MAX_VALUE)
+			maxRetained= DEFAULT_RETAINED_WITH_SPILL;
+		try {
+			return new Result(maxRetained, fFailureSpillFile);
+		} catch (IOException e) {
+			throw new RuntimeException("Cannot write failures to " + fFailureSpillFile, e);
+		}
+	}
+
+	private void runStoppably(Runner runner, Result result) {
+		StopWatcher watcher= new StopWatcher(fStopPolicy, fNotifier);
+		try {
+			runner.run(watcher.getNotifier());
+		} catch (StoppedByUserException e) {
+			if (!watcher.hasStopped())
+				throw e;
+		}
+		if (watcher.hasStopped())
+			result.addNotRunTests(watcher.getNotRun(runner.getDescription()));
+	}
+
+	/**
+	 * Stops each following run early once {@code policy} says so; null (the
+	 * default) runs every test. Highly experimental feature that may change.
+	 */
+	public void setStopPolicy(StopPolicy policy) {
+		fStopPolicy= policy;
+	}
+
+	/**
+	 * Keeps at most {@code max} failures of each following run in
+	 * {@link Result#getFailures()}, and of failures with identical stack traces
+	 * only the first. Failures are still all counted. Highly experimental
+	 * feature that may change.
+	 */
+	public void setMaxRetainedFailures(int max) {
+		fMaxRetainedFailures= max;
+	}
+
+	/**
+	 * Writes every failure of each following run, with its stack trace, to
+	 * {@code file} as it happens; null (the default) writes none. Unless
+	 * {@link #setMaxRetainedFailures(int)} sets another bound, only the first
+	 * 100 failures are then kept in {@link Result#getFailures()}. Highly
+	 * experimental feature that may change.
+	 */
+	public void setFailureSpillFile(File file) {
+		fFailureSpillFile= file;
+	}
+
 	/**
 	 * Add a listener to be notified as the tests run.
 	 * @param listener the listener to add
@@ -1,6 +1,9 @@
 package org.junit.runner;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 
 import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
 import org.junit.internal.requests.ClassRequest;
@@ -36,6 +39,20 @@ public abstract class Request {
 		return Request.aClass(clazz).filterWith(method);
 	}
 
+	/**
+	 * Create a <code>Request</code> that, when processed, will run the named tests
+	 * of a class. This is done by filtering out all other tests in a single pass.
+	 * @param clazz the class of the tests
+	 * @param methodNames the names of the tests
+	 * @return a <code>Request</code> that will cause the named tests be run
+	 */
+	public static Request methods(Class<?> clazz, String... methodNames) {
+		List<Description> methods= new ArrayList<Description>();
+		for (String each : methodNames)
+			methods.add(Description.createTestDescription(clazz, each));
+		return Request.aClass(clazz).filterWith(methods);
+	}
+
 	/**
 	 * Create a <code>Request</code> that, when processed, will run all the tests
 	 * in a class. The odd name is necessary because <code>class</code> is a reserved word.
@@ -132,6 +149,18 @@ public abstract class Request {
 		return filterWith(Filter.matchMethodDescription(desiredDescription));
 	}
 
+	/**
+	 * Returns a Request that only runs tests whose {@link Description}
+	 * is one of <code>desiredDescriptions</code>. Use this rather than
+	 * repeated calls to {@link #filterWith(Description)} when selecting many
+	 * tests: the whole selection is applied in a single pass over the tests.
+	 * @param desiredDescriptions {@link Description}s of those tests that should be run
+	 * @return the filtered Request
+	 */
+	public Request filterWith(Collection<Description> desiredDescriptions) {
+		return filterWith(Filter.matchMethodDescriptions(desiredDescriptions));
+	}
+
 	/**
 	 * Returns a Request whose Tests can be run in a certain order, defined by 
 	 * <code>comparator</code>
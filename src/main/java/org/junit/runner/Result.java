@@ -1,8 +1,14 @@
 package org.junit.runner;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.runner.notification.Failure;
@@ -16,9 +22,36 @@ import org.junit.runner.notification.RunListener;
 public class Result {
 	private AtomicInteger fCount = new AtomicInteger();
 	private AtomicInteger fIgnoreCount= new AtomicInteger();
+	private AtomicInteger fOmittedCount= new AtomicInteger();
 	private final List<Failure> fFailures= Collections.synchronizedList( new ArrayList<Failure>());
-	private long fRunTime= 0;
-	private long fStartTime;
+	private final int fMaxRetained;
+	// Traces of the retained failures, if their number is bounded
+	private final Set<String> fRetainedTraces;
+	private final File fSpillFile;
+	private final PrintWriter fSpill;
+	private int fSpillCount= 0;
+	private final List<Description> fNotRun= Collections.synchronizedList(new ArrayList<Description>());
+	private volatile long fRunTime= 0;
+	private volatile long fStartTime;
+
+	public Result() {
+		fMaxRetained= Integer.MAX_VALUE;
+		fRetainedTraces= null;
+		fSpillFile= null;
+		fSpill= null;
+	}
+
+	/**
+	 * A result that keeps at most {@code maxRetained} failures in memory, only
+	 * one of those with identical stack traces, and that writes every failure
+	 * to {@code spillFile} unless it is null.
+	 */
+	Result(int maxRetained, File spillFile) throws IOException {
+		fMaxRetained= maxRetained;
+		fRetainedTraces= maxRetained == Integer.MAX_VALUE ? null : new HashSet<String>();
+		fSpillFile= spillFile;
+		fSpill= spillFile == null ? null : new PrintWriter(new FileWriter(spillFile));
+	}
 
 	/**
 	 * @return the number of tests run
@@ -31,7 +64,7 @@ public class Result {
 	 * @return the number of tests that failed during the run
 	 */
 	public int getFailureCount() {
-		return fFailures.size();
+		return fFailures.size() + fOmittedCount.get();
 	}
 
 	/**
@@ -42,12 +75,29 @@ public class Result {
 	}
 
 	/**
-	 * @return the {@link Failure}s describing tests that failed and the problems they encountered
+	 * @return the {@link Failure}s describing tests that failed and the problems they encountered.
+	 * If {@link JUnitCore#setMaxRetainedFailures(int)} bounded them, only those kept in memory.
 	 */
 	public List<Failure> getFailures() {
 		return fFailures;
 	}
 
+	/**
+	 * @return the number of failures that are counted but not in {@link #getFailures()},
+	 * because their stack trace was the same as a failure's kept, or too many were kept
+	 */
+	public int getOmittedFailureCount() {
+		return fOmittedCount.get();
+	}
+
+	/**
+	 * @return the file every failure was written to, or null
+	 * @see JUnitCore#setFailureSpillFile(File)
+	 */
+	public File getFailureSpillFile() {
+		return fSpillFile;
+	}
+
 	/**
 	 * @return the number of tests ignored during the run
 	 */
@@ -55,6 +105,33 @@ public class Result {
 		return fIgnoreCount.get();
 	}
 
+	/**
+	 * @return the tests that were never started because a {@link StopPolicy}
+	 * stopped the run early
+	 */
+	public List<Description> getNotRunTests() {
+		return fNotRun;
+	}
+
+	/**
+	 * @return the number of tests that were never started because a
+	 * {@link StopPolicy} stopped the run early
+	 */
+	public int getNotRunCount() {
+		return fNotRun.size();
+	}
+
+	void addNotRunTests(List<Description> tests) {
+		fNotRun.addAll(tests);
+	}
+
+	void closeSpill() {
+		if (fSpill != null)
+			synchronized (fSpill) {
+				fSpill.close();
+			}
+	}
+
 	/**
 	 * @return <code>true</code> if all tests succeeded
 	 */
@@ -72,6 +149,7 @@ public class Result {
 		public void testRunFinished(Result result) throws Exception {
 			long endTime= System.currentTimeMillis();
 			fRunTime+= endTime - fStartTime;
+			closeSpill();
 		}
 
 		@Override
@@ -81,7 +159,26 @@ public class Result {
 
 		@Override
 		public void testFailure(Failure failure) throws Exception {
-			fFailures.add(failure);
+			if (fRetainedTraces == null && fSpill == null) {
+				fFailures.add(failure);
+				return;
+			}
+			String trace= failure.getTrace();
+			if (fSpill != null)
+				synchronized (fSpill) {
+					fSpill.println(++fSpillCount + ") " + failure.getTestHeader());
+					fSpill.print(trace);
+					fSpill.flush();
+				}
+			if (fRetainedTraces == null)
+				fFailures.add(failure);
+			else
+				synchronized (fFailures) {
+					if (fFailures.size() < fMaxRetained && fRetainedTraces.add(trace))
+						fFailures.add(failure);
+					else
+						fOmittedCount.incrementAndGet();
+				}
 		}
 
 		@Override
@@ -0,0 +1,62 @@
+package org.junit.runner;
+
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.Failure;
+
+/**
+ * Decides when a run has failed badly enough that the remaining tests are not
+ * worth running. Set one with {@link JUnitCore#setStopPolicy(StopPolicy)}:
+ * once it says stop, no further test is started, tests already running are
+ * allowed to finish, and the tests that were never started are reported by
+ * {@link Result#getNotRunTests()}.
+ *
+ * <pre>
+ * JUnitCore core= new JUnitCore();
+ * core.setStopPolicy(StopPolicy.afterFailures(1));
+ * MaxCore.storedLocally(file).run(request, core);
+ * </pre>
+ */
+public abstract class StopPolicy {
+	/**
+	 * Returns a policy that stops the run once {@code count} failures have
+	 * been reported
+	 */
+	public static StopPolicy afterFailures(final int count) {
+		if (count < 1)
+			throw new IllegalArgumentException("count must be positive: "
+					+ count);
+		return new StopPolicy() {
+			@Override
+			public boolean shouldStop(Failure failure, int failureCount) {
+				return failureCount >= count;
+			}
+		};
+	}
+
+	/**
+	 * Returns a policy that stops the run as soon as a test that
+	 * {@code smokeTests} selects fails, for example a test in a category
+	 * included by a {@link org.junit.experimental.categories.Categories.CategoryFilter}
+	 */
+	public static StopPolicy afterFailureIn(final Filter smokeTests) {
+		return new StopPolicy() {
+			@Override
+			public boolean shouldStop(Failure failure, int failureCount) {
+				return smokeTests.shouldRun(failure.getDescription());
+			}
+		};
+	}
+
+	/**
+	 * Called for each failure of the run, one at a time, until it returns
+	 * true.
+	 *
+	 * @param failure
+	 *            the failure just reported
+	 * @param failureCount
+	 *            the number of failures reported so far, including
+	 *            {@code failure}
+	 * @return true if no further tests should be started
+	 */
+	public abstract boolean shouldStop(Failure failure, int failureCount);
+}
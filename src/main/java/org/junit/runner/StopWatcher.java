@@ -0,0 +1,100 @@
+package org.junit.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Gives one run of {@link JUnitCore} a notifier of its own, which forwards
+ * every event to the core's listeners and is asked to stop once the
+ * {@link StopPolicy} says so. Stopping is per run: the next run of the same
+ * core starts afresh.
+ */
+class StopWatcher extends RunListener {
+	private final StopPolicy fPolicy;
+
+	private final RunNotifier fTarget;
+
+	private final RunNotifier fRunNotifier= new RunNotifier();
+
+	private final Set<Description> fReported= Collections
+			.synchronizedSet(new HashSet<Description>());
+
+	private int fFailureCount= 0;
+
+	private volatile boolean fStopped= false;
+
+	StopWatcher(StopPolicy policy, RunNotifier target) {
+		fPolicy= policy;
+		fTarget= target;
+		fRunNotifier.addListener(this);
+	}
+
+	RunNotifier getNotifier() {
+		return fRunNotifier;
+	}
+
+	boolean hasStopped() {
+		return fStopped;
+	}
+
+	/**
+	 * Returns the tests of {@code run} that were never started, ignored or
+	 * failed
+	 */
+	List<Description> getNotRun(Description run) {
+		List<Description> result= new ArrayList<Description>();
+		collectNotRun(run, result);
+		return result;
+	}
+
+	private void collectNotRun(Description description, List<Description> result) {
+		if (fReported.contains(description))
+			return;
+		if (description.getChildren().isEmpty())
+			result.add(description);
+		for (Description each : description.getChildren())
+			collectNotRun(each, result);
+	}
+
+	@Override
+	public void testStarted(Description description) {
+		fReported.add(description);
+		fTarget.fireTestStarted(description);
+	}
+
+	@Override
+	public void testFinished(Description description) {
+		fTarget.fireTestFinished(description);
+	}
+
+	@Override
+	public void testFailure(Failure failure) {
+		fReported.add(failure.getDescription());
+		fTarget.fireTestFailure(failure);
+		synchronized (this) {
+			fFailureCount++;
+			if (!fStopped && fPolicy.shouldStop(failure, fFailureCount)) {
+				fStopped= true;
+				fRunNotifier.pleaseStop();
+			}
+		}
+	}
+
+	@Override
+	public void testAssumptionFailure(Failure failure) {
+		fTarget.fireTestAssumptionFailed(failure);
+	}
+
+	@Override
+	public void testIgnored(Description description) {
+		fReported.add(description);
+		fTarget.fireTestIgnored(description);
+	}
+}
@@ -1,5 +1,11 @@
 package org.junit.runner.manipulation;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
 import org.junit.runner.Description;
 import org.junit.runner.Request;
 
@@ -53,6 +59,43 @@ public abstract class Filter {
 		};
 	}
 
+	/**
+	 * Returns a {@code Filter} that only runs the methods described by
+	 * {@code desiredDescriptions}. The wanted methods are put in a hash set
+	 * once, so checking a method takes constant time, and the answer for each
+	 * suite is remembered, so that filtering a whole tree level by level visits
+	 * each {@link Description} only once, however many methods are wanted.
+	 */
+	public static Filter matchMethodDescriptions(
+			Collection<Description> desiredDescriptions) {
+		final Set<Description> desired= new HashSet<Description>(desiredDescriptions);
+		return new Filter() {
+			private final Map<Description, Boolean> fSuiteResults= new IdentityHashMap<Description, Boolean>();
+
+			@Override
+			public synchronized boolean shouldRun(Description description) {
+				if (description.isTest())
+					return desired.contains(description);
+
+				Boolean result= fSuiteResults.get(description);
+				if (result == null) {
+					result= Boolean.FALSE;
+					for (Description each : description.getChildren())
+						if (shouldRun(each)) {
+							result= Boolean.TRUE;
+							break;
+						}
+					fSuiteResults.put(description, result);
+				}
+				return result;
+			}
+
+			@Override
+			public String describe() {
+				return String.format("Methods %s", desired);
+			}
+		};
+	}
 
 	/**
 	 * @param description the description of the test to be run
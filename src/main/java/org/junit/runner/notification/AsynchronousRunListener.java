@@ -0,0 +1,268 @@
+package org.junit.runner.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+
+/**
+ * <p>Wraps a slow {@link RunListener} so that its events are delivered on a
+ * dedicated thread instead of the thread running the tests. The thread is
+ * started by the first event of a run and stopped by the run's
+ * {@link #testRunFinished(Result)}. Events are put
+ * into a bounded queue and handed to the wrapped listener in batches, in
+ * exactly the order they were fired. When the queue is full, the firing test
+ * thread waits until there is room again.</p>
+ *
+ * <p>{@link #testRunFinished(Result)} is a barrier: it returns only after
+ * every earlier event, and the finish event itself, has been delivered, so a
+ * report written by the wrapped listener is complete when
+ * {@link org.junit.runner.JUnitCore#run(Class...)} returns.</p>
+ *
+ * <pre>
+ * JUnitCore core= new JUnitCore();
+ * core.addListener(new AsynchronousRunListener(new TextListener(System.out)));
+ * core.run(MyTestClass.class);
+ * </pre>
+ *
+ * <p>If the wrapped listener throws, it receives no further events and the
+ * exception is rethrown to the {@link RunNotifier} on the next event, which
+ * then removes this listener as it would any other failing listener.</p>
+ */
+public class AsynchronousRunListener extends RunListener {
+	private static final int DEFAULT_CAPACITY= 1024;
+
+	private static final int DEFAULT_BATCH_SIZE= 64;
+
+	private static final int RUN_STARTED= 0;
+	private static final int RUN_FINISHED= 1;
+	private static final int STARTED= 2;
+	private static final int FINISHED= 3;
+	private static final int FAILURE= 4;
+	private static final int ASSUMPTION_FAILED= 5;
+	private static final int IGNORED= 6;
+
+	private static class Event {
+		final int fKind;
+
+		final Object fArgument;
+
+		Event(int kind, Object argument) {
+			fKind= kind;
+			fArgument= argument;
+		}
+	}
+
+	private final RunListener fDelegate;
+
+	private final BlockingQueue<Event> fQueue;
+
+	private final int fBatchSize;
+
+	private final Object fDispatcherLock= new Object();
+
+	private Thread fDispatcher= null;
+
+	private volatile Exception fDelegateFailure= null;
+
+	/**
+	 * Delivers events to {@code delegate} on a dedicated thread, using a
+	 * queue of 1024 events and batches of up to 64 events.
+	 */
+	public AsynchronousRunListener(RunListener delegate) {
+		this(delegate, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param delegate
+	 *            the listener to notify
+	 * @param capacity
+	 *            how many undelivered events may be queued before firing
+	 *            threads wait
+	 * @param batchSize
+	 *            the largest number of events handed to {@code delegate} in
+	 *            one go
+	 */
+	public AsynchronousRunListener(RunListener delegate, int capacity,
+			int batchSize) {
+		if (capacity < 1 || batchSize < 1)
+			throw new IllegalArgumentException(
+					"capacity and batchSize must be positive");
+		fDelegate= delegate;
+		fQueue= new ArrayBlockingQueue<Event>(capacity);
+		fBatchSize= batchSize;
+	}
+
+	@Override
+	public void testRunStarted(Description description) throws Exception {
+		enqueue(RUN_STARTED, description);
+	}
+
+	@Override
+	public void testRunFinished(Result result) throws Exception {
+		put(new Event(RUN_FINISHED, result));
+		// The dispatcher stops once it has delivered the finish event
+		synchronized (fDispatcherLock) {
+			if (fDispatcher != null) {
+				joinUninterruptibly(fDispatcher);
+				fDispatcher= null;
+			}
+		}
+		rethrowDelegateFailure();
+	}
+
+	@Override
+	public void testStarted(Description description) throws Exception {
+		enqueue(STARTED, description);
+	}
+
+	@Override
+	public void testFinished(Description description) throws Exception {
+		enqueue(FINISHED, description);
+	}
+
+	@Override
+	public void testFailure(Failure failure) throws Exception {
+		enqueue(FAILURE, failure);
+	}
+
+	@Override
+	public void testAssumptionFailure(Failure failure) {
+		put(new Event(ASSUMPTION_FAILED, failure));
+	}
+
+	@Override
+	public void testIgnored(Description description) throws Exception {
+		enqueue(IGNORED, description);
+	}
+
+	private void enqueue(int kind, Object argument) throws Exception {
+		rethrowDelegateFailure();
+		put(new Event(kind, argument));
+	}
+
+	private void rethrowDelegateFailure() throws Exception {
+		Exception failure= fDelegateFailure;
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Queues {@code event}, waiting for room if the queue is full. A test that
+	 * leaves its thread interrupted must not make this fail, so the wait is
+	 * not interruptible; the interrupt is restored afterwards. The event is
+	 * dropped if the dispatcher has stopped, as nobody would take it.
+	 */
+	private void put(Event event) {
+		Thread dispatcher= startDispatcher();
+		boolean interrupted= false;
+		try {
+			while (fDelegateFailure == null && dispatcher.isAlive()) {
+				try {
+					if (fQueue.offer(event, 100, TimeUnit.MILLISECONDS))
+						return;
+				} catch (InterruptedException e) {
+					interrupted= true;
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	private Thread startDispatcher() {
+		synchronized (fDispatcherLock) {
+			if (fDispatcher == null) {
+				fDispatcher= new Thread(new Runnable() {
+					public void run() {
+						dispatch();
+					}
+				}, "AsynchronousRunListener-" + fDelegate.getClass().getName());
+				fDispatcher.setDaemon(true);
+				fDispatcher.start();
+			}
+			return fDispatcher;
+		}
+	}
+
+	private static void joinUninterruptibly(Thread thread) {
+		boolean interrupted= false;
+		while (thread.isAlive())
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted= true;
+			}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private void dispatch() {
+		List<Event> batch= new ArrayList<Event>(fBatchSize);
+		boolean finished= false;
+		while (!finished) {
+			try {
+				batch.add(fQueue.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			fQueue.drainTo(batch, fBatchSize - 1);
+			for (Event each : batch) {
+				deliver(each);
+				if (each.fKind == RUN_FINISHED)
+					finished= true;
+			}
+			batch.clear();
+			if (fDelegateFailure != null) {
+				// The notifier removes this listener on its next event, so
+				// the finish event may never come
+				fQueue.clear();
+				return;
+			}
+		}
+	}
+
+	private void deliver(Event event) {
+		try {
+			if (fDelegateFailure == null)
+				notifyDelegate(event.fKind, event.fArgument);
+		} catch (Exception e) {
+			fDelegateFailure= e;
+		} catch (Error e) {
+			fDelegateFailure= new RuntimeException(e);
+		}
+	}
+
+	private void notifyDelegate(int kind, Object argument) throws Exception {
+		switch (kind) {
+		case RUN_STARTED:
+			fDelegate.testRunStarted((Description) argument);
+			break;
+		case RUN_FINISHED:
+			fDelegate.testRunFinished((Result) argument);
+			break;
+		case STARTED:
+			fDelegate.testStarted((Description) argument);
+			break;
+		case FINISHED:
+			fDelegate.testFinished((Description) argument);
+			break;
+		case FAILURE:
+			fDelegate.testFailure((Failure) argument);
+			break;
+		case ASSUMPTION_FAILED:
+			fDelegate.testAssumptionFailure((Failure) argument);
+			break;
+		case IGNORED:
+			fDelegate.testIgnored((Description) argument);
+			break;
+		default:
+			throw new IllegalStateException("Unknown event " + kind);
+		}
+	}
+}
@@ -29,6 +29,11 @@ import org.junit.runner.Result;
  * }
  * </pre>
  * </p>
+ * 
+ * <p>{@link RunNotifier} does not serialize calls to its listeners. When tests run
+ * in parallel, for example with a {@link org.junit.experimental.ParallelComputer},
+ * a listener may be called from several threads at once, so it must be thread-safe
+ * itself: guard any state it keeps, and any output it writes in several steps.</p>
  * @see org.junit.runner.JUnitCore
  */
 public class RunListener {
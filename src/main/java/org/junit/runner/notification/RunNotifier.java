@@ -1,10 +1,5 @@
 package org.junit.runner.notification;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.runner.Description;
 import org.junit.runner.Result;
@@ -17,60 +12,112 @@ import org.junit.runner.Result;
  * to a separate class since they should only be called once per run.
  */
 public class RunNotifier {
-	private final List<RunListener> fListeners= 
-		Collections.synchronizedList(new ArrayList<RunListener>());
-	private boolean fPleaseStop= false;
+	private static final RunListener[] NO_LISTENERS= new RunListener[0];
+
+	// Copy-on-write: firing an event reads the current array without locking
+	// or allocating; only adding and removing listeners pays for a copy.
+	private volatile RunListener[] fListeners= NO_LISTENERS;
+	private final Object fListenersLock= new Object();
+	private volatile boolean fPleaseStop= false;
 	
 	/** Internal use only
 	 */
 	public void addListener(RunListener listener) {
-		fListeners.add(listener);
+		synchronized (fListenersLock) {
+			RunListener[] listeners= fListeners;
+			RunListener[] copy= new RunListener[listeners.length + 1];
+			System.arraycopy(listeners, 0, copy, 0, listeners.length);
+			copy[listeners.length]= listener;
+			fListeners= copy;
+		}
 	}
 
 	/** Internal use only
 	 */
 	public void removeListener(RunListener listener) {
-		fListeners.remove(listener);
-    }
+		synchronized (fListenersLock) {
+			RunListener[] listeners= fListeners;
+			for (int i= 0; i < listeners.length; i++)
+				if (listeners[i] == null ? listener == null : listeners[i].equals(listener)) {
+					RunListener[] copy= new RunListener[listeners.length - 1];
+					System.arraycopy(listeners, 0, copy, 0, i);
+					System.arraycopy(listeners, i + 1, copy, i, copy.length - i);
+					fListeners= copy;
+					return;
+				}
+		}
+	}
 
-	private abstract class SafeNotifier {
-		void run() {
-			synchronized (fListeners) {
-				for (Iterator<RunListener> all= fListeners.iterator(); all.hasNext();)
-					try {
-						notifyListener(all.next());
-					} catch (Exception e) {
-						all.remove(); // Remove the offending listener first to avoid an infinite loop
-						fireTestFailure(new Failure(Description.TEST_MECHANISM, e));
-					}
+	private enum Event {
+		RUN_STARTED {
+			@Override
+			void notify(RunListener each, Object argument) throws Exception {
+				each.testRunStarted((Description) argument);
+			}
+		},
+		RUN_FINISHED {
+			@Override
+			void notify(RunListener each, Object argument) throws Exception {
+				each.testRunFinished((Result) argument);
+			}
+		},
+		STARTED {
+			@Override
+			void notify(RunListener each, Object argument) throws Exception {
+				each.testStarted((Description) argument);
+			}
+		},
+		FAILURE {
+			@Override
+			void notify(RunListener each, Object argument) throws Exception {
+				each.testFailure((Failure) argument);
+			}
+		},
+		ASSUMPTION_FAILED {
+			@Override
+			void notify(RunListener each, Object argument) throws Exception {
+				each.testAssumptionFailure((Failure) argument);
+			}
+		},
+		IGNORED {
+			@Override
+			void notify(RunListener each, Object argument) throws Exception {
+				each.testIgnored((Description) argument);
+			}
+		},
+		FINISHED {
+			@Override
+			void notify(RunListener each, Object argument) throws Exception {
+				each.testFinished((Description) argument);
+			}
+		};
+
+		abstract void notify(RunListener each, Object argument) throws Exception;
+	}
+
+	private void fire(Event event, Object argument) {
+		RunListener[] listeners= fListeners;
+		for (int i= 0; i < listeners.length; i++)
+			try {
+				event.notify(listeners[i], argument);
+			} catch (Exception e) {
+				removeListener(listeners[i]); // Remove the offending listener first to avoid an infinite loop
+				fireTestFailure(new Failure(Description.TEST_MECHANISM, e));
 			}
-		}
-		
-		abstract protected void notifyListener(RunListener each) throws Exception;
 	}
 	
 	/**
 	 * Do not invoke. 
 	 */
-	public void fireTestRunStarted(final Description description) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testRunStarted(description);
-			};
-		}.run();
+	public void fireTestRunStarted(Description description) {
+		fire(Event.RUN_STARTED, description);
 	}
 	
 	/**
 	 * Do not invoke.
 	 */
-	public void fireTestRunFinished(final Result result) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testRunFinished(result);
-			};
-		}.run();
+	public void fireTestRunFinished(Result result) {
+		fire(Event.RUN_FINISHED, result);
 	}
 	
 	/**
@@ -78,28 +125,18 @@ public class RunNotifier {
 	 * @param description the description of the atomic test (generally a class and method name)
 	 * @throws StoppedByUserException thrown if a user has requested that the test run stop
 	 */
-	public void fireTestStarted(final Description description) throws StoppedByUserException {
+	public void fireTestStarted(Description description) throws StoppedByUserException {
 		if (fPleaseStop)
 			throw new StoppedByUserException();
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testStarted(description);
-			};
-		}.run();
+		fire(Event.STARTED, description);
 	}
 
 	/**
 	 * Invoke to tell listeners that an atomic test failed.
 	 * @param failure the description of the test that failed and the exception thrown
 	 */
-	public void fireTestFailure(final Failure failure) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testFailure(failure);
-			};
-		}.run();
+	public void fireTestFailure(Failure failure) {
+		fire(Event.FAILURE, failure);
 	}
 
 	/**
@@ -110,26 +147,16 @@ public class RunNotifier {
 	 *            the description of the test that failed and the
 	 *            {@link AssumptionViolatedException} thrown
 	 */
-	public void fireTestAssumptionFailed(final Failure failure) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testAssumptionFailure(failure);
-			};
-		}.run();
+	public void fireTestAssumptionFailed(Failure failure) {
+		fire(Event.ASSUMPTION_FAILED, failure);
 	}
 
 	/**
 	 * Invoke to tell listeners that an atomic test was ignored.
 	 * @param description the description of the ignored test
 	 */
-	public void fireTestIgnored(final Description description) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testIgnored(description);
-			}
-		}.run();
+	public void fireTestIgnored(Description description) {
+		fire(Event.IGNORED, description);
 	}
 
 	/**
@@ -138,13 +165,8 @@ public class RunNotifier {
 	 * as listeners are likely to expect them to come in pairs.
 	 * @param description the description of the test that finished
 	 */
-	public void fireTestFinished(final Description description) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testFinished(description);
-			};
-		}.run();
+	public void fireTestFinished(Description description) {
+		fire(Event.FINISHED, description);
 	}
 	
 	/**
@@ -161,6 +183,12 @@ public class RunNotifier {
 	 * Internal use only. The Result's listener must be first.
 	 */
 	public void addFirstListener(RunListener listener) {
-		fListeners.add(0, listener);
+		synchronized (fListenersLock) {
+			RunListener[] listeners= fListeners;
+			RunListener[] copy= new RunListener[listeners.length + 1];
+			copy[0]= listener;
+			System.arraycopy(listeners, 0, copy, 1, listeners.length);
+			fListeners= copy;
+		}
 	}
 }
\ No newline at end of file
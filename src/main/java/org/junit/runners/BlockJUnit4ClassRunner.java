@@ -2,6 +2,7 @@ package org.junit.runners;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.After;
@@ -48,6 +49,18 @@ import org.junit.runners.model.Statement;
  * </ul>
  */
 public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
+	/**
+	 * Setting this system property to {@code true} turns on
+	 * {@link #setReleaseTestInstances(boolean)} for every runner.
+	 */
+	public static final String RELEASE_TEST_INSTANCES_PROPERTY= "junit.releaseTestInstances";
+
+	private boolean fReleaseTestInstances= Boolean
+			.getBoolean(RELEASE_TEST_INSTANCES_PROPERTY);
+
+	// The instances created for the test running on this thread, if they are
+	// to be released
+	private final ThreadLocal<List<Object>> fCreatedTests= new ThreadLocal<List<Object>>();
 
 	/**
 	 * Creates a BlockJUnit4ClassRunner to run {@code klass}
@@ -76,6 +89,8 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 	private void runNotIgnored(FrameworkMethod method,
 			EachTestNotifier eachNotifier) {
 		eachNotifier.fireTestStarted();
+		if (fReleaseTestInstances)
+			fCreatedTests.set(new ArrayList<Object>());
 		try {
 			methodBlock(method).evaluate();
 		} catch (AssumptionViolatedException e) {
@@ -84,9 +99,38 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 			eachNotifier.addFailure(e);
 		} finally {
 			eachNotifier.fireTestFinished();
+			if (fReleaseTestInstances)
+				releaseCreatedTests();
 		}
 	}
 
+	private void releaseCreatedTests() {
+		List<Object> created= fCreatedTests.get();
+		fCreatedTests.remove();
+		if (created != null)
+			for (Object each : created)
+				clearFields(each);
+	}
+
+	/**
+	 * Sets every instance field of {@code test} that holds a reference,
+	 * including {@code @Rule} fields, to {@code null}, so that whatever still
+	 * refers to the test instance does not keep its fixture alive.
+	 */
+	private static void clearFields(Object test) {
+		for (Class<?> c= test.getClass(); c != Object.class; c= c
+				.getSuperclass())
+			for (Field each : c.getDeclaredFields())
+				if (!Modifier.isStatic(each.getModifiers())
+						&& !each.getType().isPrimitive())
+					try {
+						each.setAccessible(true);
+						each.set(test, null);
+					} catch (Exception e) {
+						// leave this field as it is
+					}
+	}
+
 	private void runIgnored(EachTestNotifier eachNotifier) {
 		eachNotifier.fireTestIgnored();
 	}
@@ -264,6 +308,9 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 		} catch (Throwable e) {
 			return new Fail(e);
 		}
+		List<Object> created= fCreatedTests.get();
+		if (created != null)
+			created.add(test);
 
 		Statement statement= methodInvoker(method, test);
 		statement= possiblyExpectingExceptions(method, test, statement);
@@ -383,4 +430,16 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 			return 0;
 		return annotation.timeout();
 	}
+
+	/**
+	 * If {@code release} is true, once a test has finished and listeners have
+	 * been told so, every reference held by the fields of its test instance is
+	 * cleared. Fixtures and rule objects can then be collected even where a
+	 * failure, a listener or a leaked thread still refers to the instance.
+	 * Tests must not use their instance after they finish, as a thread left
+	 * behind by a timeout might. Highly experimental feature that may change.
+	 */
+	public void setReleaseTestInstances(boolean release) {
+		fReleaseTestInstances= release;
+	}
 }
@@ -1,11 +1,14 @@
 package org.junit.runners;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -17,6 +20,7 @@ import org.junit.internal.runners.model.MultipleFailureException;
 import org.junit.internal.runners.statements.RunAfters;
 import org.junit.internal.runners.statements.RunBefores;
 import org.junit.rules.TestRule;
+import org.junit.runner.Describable;
 import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runner.manipulation.Filter;
@@ -51,6 +55,13 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 
 	private Sorter fSorter= Sorter.NULL;
 
+	// Memoized until the next call to filter() or sort()
+	private volatile List<T> fFilteredChildren= null;
+
+	private volatile Description fDescription= null;
+
+	private final Map<T, Description> fChildDescriptions= new ConcurrentHashMap<T, Description>();
+
 	private RunnerScheduler fScheduler= new RunnerScheduler() {	
 		public void schedule(Runnable childStatement) {
 			childStatement.run();
@@ -240,15 +251,34 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 	}
 
 	private void runChildren(final RunNotifier notifier) {
-		for (final T each : getFilteredChildren())
- 			fScheduler.schedule(new Runnable() {			
-				public void run() {
-					ParentRunner.this.runChild(each, notifier);
-				}
-			});
+		for (T each : getFilteredChildren())
+			fScheduler.schedule(new ChildStatement(each, notifier));
 		fScheduler.finished();
 	}
 
+	/**
+	 * Runs one child. Schedulers that need to know which child they are
+	 * scheduling can ask for its {@link Description}.
+	 */
+	private class ChildStatement implements Runnable, Describable {
+		private final T fChild;
+
+		private final RunNotifier fNotifier;
+
+		ChildStatement(T child, RunNotifier notifier) {
+			fChild= child;
+			fNotifier= notifier;
+		}
+
+		public void run() {
+			runChild(fChild, fNotifier);
+		}
+
+		public Description getDescription() {
+			return cachedDescription(fChild);
+		}
+	}
+
 	/**
 	 * Returns a name used to describe this Runner
 	 */
@@ -271,15 +301,34 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 	// Implementation of Runner
 	// 
 	
+	/**
+	 * Returns a {@link Description} of this runner and its filtered, sorted
+	 * children. The tree is built once and reused until the next call to
+	 * {@link #filter(Filter)} or {@link #sort(Sorter)}.
+	 */
 	@Override
 	public Description getDescription() {
-		Description description= Description.createSuiteDescription(getName(),
-				fTestClass.getAnnotations());
-		for (T child : getFilteredChildren())
-			description.addChild(describeChild(child));
+		Description description= fDescription;
+		if (description == null) {
+			description= Description.createSuiteDescription(getName(),
+					uniqueId(), fTestClass.getAnnotations());
+			for (T child : getFilteredChildren())
+				description.addChild(cachedDescription(child));
+			fDescription= description;
+		}
 		return description;
 	}
 
+	// Descriptions are equal by id alone, and runners of different classes
+	// may share a name, as the parameter sets of Parameterized do
+	private Serializable uniqueId() {
+		Class<?> javaClass= fTestClass.getJavaClass();
+		String name= getName();
+		if (javaClass == null || name.equals(javaClass.getName()))
+			return name;
+		return javaClass.getName() + name;
+	}
+
 	@Override
 	public void run(final RunNotifier notifier) {
 		EachTestNotifier testNotifier= new EachTestNotifier(notifier,
@@ -302,6 +351,7 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 
 	public void filter(Filter filter) throws NoTestsRemainException {
 		fFilter= filter;
+		invalidate();
 
 		for (T each : getChildren())
 			if (shouldRun(each))
@@ -311,6 +361,7 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 
 	public void sort(Sorter sorter) {
 		fSorter= sorter;
+		invalidate();
 	}
 	
 	//
@@ -324,7 +375,22 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 			throw new InitializationError(errors);
 	}
 
+	private void invalidate() {
+		fFilteredChildren= null;
+		fDescription= null;
+		fChildDescriptions.clear();
+	}
+
 	private List<T> getFilteredChildren() {
+		List<T> filtered= fFilteredChildren;
+		if (filtered == null) {
+			filtered= computeFilteredChildren();
+			fFilteredChildren= filtered;
+		}
+		return filtered;
+	}
+
+	private List<T> computeFilteredChildren() {
 		ArrayList<T> filtered= new ArrayList<T>();
 		for (T each : getChildren())
 			if (shouldRun(each))
@@ -334,9 +400,23 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 					filtered.add(each);
 				} catch (NoTestsRemainException e) {
 					// don't add it
+				} finally {
+					// Filtering or sorting a child can change its description
+					if (each instanceof Filterable || each instanceof Sortable)
+						fChildDescriptions.remove(each);
 				}
-		Collections.sort(filtered, comparator());
-		return filtered;
+		if (fSorter != Sorter.NULL)
+			Collections.sort(filtered, comparator());
+		return Collections.unmodifiableList(filtered);
+	}
+
+	private Description cachedDescription(T child) {
+		Description description= fChildDescriptions.get(child);
+		if (description == null) {
+			description= describeChild(child);
+			fChildDescriptions.put(child, description);
+		}
+		return description;
 	}
 
 	private void sortChild(T child) {
@@ -349,13 +429,13 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 	}
 
 	private boolean shouldRun(T each) {
-		return fFilter == null || fFilter.shouldRun(describeChild(each));
+		return fFilter == null || fFilter.shouldRun(cachedDescription(each));
 	}
 
 	private Comparator<? super T> comparator() {
 		return new Comparator<T>() {
 			public int compare(T o1, T o2) {
-				return fSorter.compare(describeChild(o1), describeChild(o2));
+				return fSorter.compare(cachedDescription(o1), cachedDescription(o2));
 			}
 		};
 	}
@@ -1,13 +1,18 @@
 package org.junit.runners.model;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -17,79 +22,144 @@ import org.junit.BeforeClass;
  * Wraps a class to be run, providing method validation and annotation searching
  */
 public class TestClass {
-	private final Class<?> fClass;
+	// An index references its class, so values are only softly reachable for
+	// classes of JUnit's own loader or its ancestors, which cannot be unloaded
+	// before JUnit anyway, and only weakly for other classes, so that their
+	// loaders can be collected as soon as no TestClass uses them.
+	private static final Map<Class<?>, Reference<AnnotationIndex>> INDEXES= Collections
+			.synchronizedMap(new WeakHashMap<Class<?>, Reference<AnnotationIndex>>());
 
-	private Map<Class<?>, List<FrameworkMethod>> fMethodsForAnnotations= new HashMap<Class<?>, List<FrameworkMethod>>();
+	private final Class<?> fClass;
 
-	private Map<Class<?>, List<FrameworkField>> fFieldsForAnnotations= new HashMap<Class<?>, List<FrameworkField>>();
+	private final AnnotationIndex fIndex;
 
 	/**
-	 * Creates a {@code TestClass} wrapping {@code klass}. Each time this
-	 * constructor executes, the class is scanned for annotations, which can be
-	 * an expensive process (we hope in future JDK's it will not be.) Therefore,
-	 * try to share instances of {@code TestClass} where possible.
+	 * Creates a {@code TestClass} wrapping {@code klass}. The first time a
+	 * class is wrapped, it is scanned for annotations; the resulting index is
+	 * immutable and shared by every later {@code TestClass} for the same class.
+	 * Indexes of classes from JUnit's class loader and its ancestors are kept
+	 * for as long as memory allows; those of classes from other loaders, such
+	 * as an IDE's per-run loader, only while some {@code TestClass} still uses
+	 * them, so that JUnit never keeps such a loader alive.
 	 */
 	public TestClass(Class<?> klass) {
 		fClass= klass;
-		if (klass != null && klass.getConstructors().length > 1)
+		fIndex= indexFor(klass);
+		if (fIndex.fConstructorCount > 1)
 			throw new IllegalArgumentException(
 					"Test class can only have one constructor");
+	}
+
+	private static AnnotationIndex indexFor(Class<?> klass) {
+		if (klass == null)
+			return new AnnotationIndex(klass);
+		Reference<AnnotationIndex> reference= INDEXES.get(klass);
+		AnnotationIndex index= reference == null ? null : reference.get();
+		if (index == null) {
+			index= new AnnotationIndex(klass);
+			INDEXES.put(klass, isLoadedWithJUnit(klass)
+					? new SoftReference<AnnotationIndex>(index)
+					: new WeakReference<AnnotationIndex>(index));
+		}
+		return index;
+	}
 
-		for (Class<?> eachClass : getSuperClasses(fClass)) {
-			for (Method eachMethod : eachClass.getDeclaredMethods())
-				addToAnnotationLists(new FrameworkMethod(eachMethod),
-						fMethodsForAnnotations);
-			for (Field eachField : eachClass.getDeclaredFields())
-				addToAnnotationLists(new FrameworkField(eachField),
-						fFieldsForAnnotations);
+	private static boolean isLoadedWithJUnit(Class<?> klass) {
+		ClassLoader loader= klass.getClassLoader();
+		if (loader == null)
+			return true;
+		try {
+			for (ClassLoader each= TestClass.class.getClassLoader(); each != null; each= each
+					.getParent())
+				if (each == loader)
+					return true;
+		} catch (SecurityException e) {
+			// not allowed to look at the parents
 		}
+		return false;
 	}
 
-	private <T extends FrameworkMember<T>> void addToAnnotationLists(T member,
-			Map<Class<?>, List<T>> map) {
-		for (Annotation each : member.getAnnotations()) {
-			Class<? extends Annotation> type= each.annotationType();
-			List<T> members= getAnnotatedMembers(map, type);
-			if (member.isShadowedBy(members))
-				return;
-			if (runsTopToBottom(type))
-				members.add(0, member);
-			else
-				members.add(member);
+	private static class AnnotationIndex {
+		private final int fConstructorCount;
+
+		private final Map<Class<?>, List<FrameworkMethod>> fMethodsForAnnotations;
+
+		private final Map<Class<?>, List<FrameworkField>> fFieldsForAnnotations;
+
+		AnnotationIndex(Class<?> klass) {
+			Map<Class<?>, List<FrameworkMethod>> methods= new HashMap<Class<?>, List<FrameworkMethod>>();
+			Map<Class<?>, List<FrameworkField>> fields= new HashMap<Class<?>, List<FrameworkField>>();
+			for (Class<?> eachClass : getSuperClasses(klass)) {
+				for (Method eachMethod : eachClass.getDeclaredMethods())
+					addToAnnotationLists(new FrameworkMethod(eachMethod), methods);
+				for (Field eachField : eachClass.getDeclaredFields())
+					addToAnnotationLists(new FrameworkField(eachField), fields);
+			}
+			fConstructorCount= klass == null ? 0 : klass.getConstructors().length;
+			fMethodsForAnnotations= makeUnmodifiable(methods);
+			fFieldsForAnnotations= makeUnmodifiable(fields);
+		}
+
+		private static <T extends FrameworkMember<T>> void addToAnnotationLists(
+				T member, Map<Class<?>, List<T>> map) {
+			for (Annotation each : member.getAnnotations()) {
+				Class<? extends Annotation> type= each.annotationType();
+				List<T> members= map.get(type);
+				if (members == null) {
+					members= new ArrayList<T>();
+					map.put(type, members);
+				}
+				if (member.isShadowedBy(members))
+					return;
+				if (runsTopToBottom(type))
+					members.add(0, member);
+				else
+					members.add(member);
+			}
+		}
+
+		private static <T> Map<Class<?>, List<T>> makeUnmodifiable(
+				Map<Class<?>, List<T>> map) {
+			for (Map.Entry<Class<?>, List<T>> each : map.entrySet())
+				each.setValue(Collections.unmodifiableList(each.getValue()));
+			return Collections.unmodifiableMap(map);
 		}
 	}
 
 	/**
 	 * Returns, efficiently, all the non-overridden methods in this class and
-	 * its superclasses that are annotated with {@code annotationClass}.
+	 * its superclasses that are annotated with {@code annotationClass}. The
+	 * list is shared and cannot be modified.
 	 */
 	public List<FrameworkMethod> getAnnotatedMethods(
 			Class<? extends Annotation> annotationClass) {
-		return getAnnotatedMembers(fMethodsForAnnotations, annotationClass);
+		return getAnnotatedMembers(fIndex.fMethodsForAnnotations, annotationClass);
 	}
 
 	/**
 	 * Returns, efficiently, all the non-overridden fields in this class and its
-	 * superclasses that are annotated with {@code annotationClass}.
+	 * superclasses that are annotated with {@code annotationClass}. The list is
+	 * shared and cannot be modified.
 	 */
 	public List<FrameworkField> getAnnotatedFields(
 			Class<? extends Annotation> annotationClass) {
-		return getAnnotatedMembers(fFieldsForAnnotations, annotationClass);
+		return getAnnotatedMembers(fIndex.fFieldsForAnnotations, annotationClass);
 	}
 
-	private <T> List<T> getAnnotatedMembers(Map<Class<?>, List<T>> map,
+	private static <T> List<T> getAnnotatedMembers(Map<Class<?>, List<T>> map,
 			Class<? extends Annotation> type) {
-		if (!map.containsKey(type))
-			map.put(type, new ArrayList<T>());
-		return map.get(type);
+		List<T> members= map.get(type);
+		if (members == null)
+			return Collections.emptyList();
+		return members;
 	}
 
-	private boolean runsTopToBottom(Class<? extends Annotation> annotation) {
+	private static boolean runsTopToBottom(Class<? extends Annotation> annotation) {
 		return annotation.equals(Before.class)
 				|| annotation.equals(BeforeClass.class);
 	}
 
-	private List<Class<?>> getSuperClasses(Class<?> testClass) {
+	private static List<Class<?>> getSuperClasses(Class<?> testClass) {
 		ArrayList<Class<?>> results= new ArrayList<Class<?>>();
 		Class<?> current= testClass;
 		while (current != null) {
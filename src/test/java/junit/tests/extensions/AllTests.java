@@ -17,6 +17,7 @@ public class AllTests {
 		TestSuite suite= new TestSuite("Framework Tests");
 		suite.addTestSuite(ExtensionTest.class);
 		suite.addTestSuite(ActiveTestTest.class);
+		suite.addTestSuite(PooledActiveTestTest.class);
 		suite.addTestSuite(RepeatedTestTest.class);
 		return suite;
 	}
@@ -0,0 +1,105 @@
+package junit.tests.extensions;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.extensions.PooledActiveTestSuite;
+import junit.framework.TestCase;
+import junit.framework.TestResult;
+
+/**
+ * Testing the PooledActiveTestSuite
+ */
+public class PooledActiveTestTest extends TestCase {
+	static final AtomicInteger running= new AtomicInteger();
+
+	static final AtomicInteger maxRunning= new AtomicInteger();
+
+	public static class SlowTest extends TestCase {
+		@Override
+		public void runTest() throws InterruptedException {
+			int now= running.incrementAndGet();
+			synchronized (maxRunning) {
+				if (now > maxRunning.get())
+					maxRunning.set(now);
+			}
+			Thread.sleep(10);
+			running.decrementAndGet();
+		}
+	}
+
+	public static class StoppingTest extends TestCase {
+		private final TestResult fResult;
+
+		StoppingTest(TestResult result) {
+			fResult= result;
+		}
+
+		@Override
+		public void runTest() {
+			fResult.stop();
+		}
+	}
+
+	@Override
+	protected void setUp() {
+		running.set(0);
+		maxRunning.set(0);
+	}
+
+	public void testPooledActiveTest() {
+		PooledActiveTestSuite suite= createSuite(3, 30);
+		TestResult result= new TestResult();
+		suite.run(result);
+		assertEquals(30, result.runCount());
+		assertTrue(result.wasSuccessful());
+		assertTrue(maxRunning.get() <= 3);
+		assertTrue(maxRunning.get() > 1);
+	}
+
+	public void testBusyTimesPerThread() {
+		PooledActiveTestSuite suite= createSuite(2, 10);
+		suite.run(new TestResult());
+		Map<String, Long> busyTimes= suite.getBusyTimes();
+		assertTrue(busyTimes.size() <= 2);
+		long total= 0;
+		for (long each : busyTimes.values())
+			total+= each;
+		assertTrue(total >= 10 * 9);
+	}
+
+	public void testInterruptedTestsAreReportedAsErrors() {
+		TestResult result= new TestResult();
+		PooledActiveTestSuite suite= createSuite(1, 5);
+		Thread.currentThread().interrupt();
+		suite.run(result);
+		assertTrue(Thread.interrupted());
+		assertEquals(0, result.runCount());
+		assertEquals(5, result.errorCount());
+	}
+
+	public void testStopsHandingOutTests() {
+		TestResult result= new TestResult();
+		PooledActiveTestSuite suite= new PooledActiveTestSuite(1);
+		suite.addTest(new StoppingTest(result));
+		for (int i= 0; i < 10; i++)
+			suite.addTest(new SlowTest());
+		suite.run(result);
+		assertEquals(1, result.runCount());
+	}
+
+	public void testParallelismMustBePositive() {
+		try {
+			new PooledActiveTestSuite(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	PooledActiveTestSuite createSuite(int parallelism, int tests) {
+		PooledActiveTestSuite suite= new PooledActiveTestSuite(parallelism);
+		for (int i= 0; i < tests; i++)
+			suite.addTest(new SlowTest());
+		return suite;
+	}
+}
@@ -18,6 +18,8 @@ public class AllTests {
 		suite.addTestSuite(TestCaseTest.class);
 		suite.addTest(SuiteTest.suite()); // Tests suite building, so can't use automatic test extraction 
 		suite.addTestSuite(TestListenerTest.class);
+		suite.addTestSuite(ConcurrentTestResultTest.class);
+		suite.addTestSuite(LazyTestSuiteTest.class);
 		suite.addTestSuite(AssertTest.class);
 		suite.addTestSuite(TestImplementorTest.class);
 		suite.addTestSuite(NoArgTestCaseTest.class);
@@ -0,0 +1,114 @@
+package junit.tests.framework;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.extensions.ActiveTestSuite;
+import junit.framework.AssertionFailedError;
+import junit.framework.ConcurrentTestResult;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestFailure;
+import junit.framework.TestListener;
+import junit.framework.TestResult;
+
+public class ConcurrentTestResultTest extends TestCase {
+	public static class Passing extends TestCase {
+		@Override
+		public void runTest() {
+		}
+	}
+
+	public static class Failing extends TestCase {
+		@Override
+		public void runTest() {
+			fail("expected");
+		}
+	}
+
+	public static class Erring extends TestCase {
+		@Override
+		public void runTest() {
+			throw new IllegalStateException();
+		}
+	}
+
+	private static class CountingListener implements TestListener {
+		final AtomicInteger fStarted= new AtomicInteger();
+		final AtomicInteger fEnded= new AtomicInteger();
+
+		public void addError(Test test, Throwable t) {
+		}
+
+		public void addFailure(Test test, AssertionFailedError t) {
+		}
+
+		public void startTest(Test test) {
+			fStarted.incrementAndGet();
+		}
+
+		public void endTest(Test test) {
+			fEnded.incrementAndGet();
+		}
+	}
+
+	public void testCountsEventsFromManyThreads() {
+		ActiveTestSuite suite= new ActiveTestSuite();
+		for (int i= 0; i < 100; i++) {
+			suite.addTest(new Passing());
+			suite.addTest(new Failing());
+			suite.addTest(new Erring());
+		}
+		TestResult result= new ConcurrentTestResult();
+		CountingListener listener= new CountingListener();
+		result.addListener(listener);
+		suite.run(result);
+		assertEquals(300, result.runCount());
+		assertEquals(100, result.failureCount());
+		assertEquals(100, result.errorCount());
+		assertEquals(100, Collections.list(result.failures()).size());
+		assertEquals(100, Collections.list(result.errors()).size());
+		assertEquals(300, listener.fStarted.get());
+		assertEquals(300, listener.fEnded.get());
+		assertFalse(result.wasSuccessful());
+	}
+
+	public void testFailuresKeepTheirCause() {
+		TestResult result= new ConcurrentTestResult();
+		new Failing().run(result);
+		TestFailure failure= result.failures().nextElement();
+		assertEquals("expected", failure.exceptionMessage());
+	}
+
+	public void testListenerRemovedDuringEventIsStillSafe() {
+		final TestResult result= new ConcurrentTestResult();
+		CountingListener counting= new CountingListener();
+		result.addListener(new TestListener() {
+			public void addError(Test test, Throwable t) {
+			}
+
+			public void addFailure(Test test, AssertionFailedError t) {
+			}
+
+			public void startTest(Test test) {
+				result.removeListener(this);
+			}
+
+			public void endTest(Test test) {
+				fail("removed");
+			}
+		});
+		result.addListener(counting);
+		new Passing().run(result);
+		assertEquals(1, counting.fStarted.get());
+		assertEquals(1, counting.fEnded.get());
+		assertTrue(result.wasSuccessful());
+	}
+
+	public void testStop() {
+		TestResult result= new ConcurrentTestResult();
+		assertFalse(result.shouldStop());
+		result.stop();
+		assertTrue(result.shouldStop());
+	}
+}
@@ -0,0 +1,91 @@
+package junit.tests.framework;
+
+import junit.framework.LazyTestSuite;
+import junit.framework.TestCase;
+import junit.framework.TestResult;
+import junit.framework.TestSuite;
+
+import org.junit.internal.runners.JUnit38ClassRunner;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+
+public class LazyTestSuiteTest extends TestCase {
+	static int created;
+
+	static int alive;
+
+	static int maxAlive;
+
+	public static class Counted extends TestCase {
+		public Counted(String name) {
+			super(name);
+			created++;
+		}
+
+		@Override
+		protected void setUp() {
+			alive++;
+			maxAlive= Math.max(maxAlive, alive);
+		}
+
+		@Override
+		protected void tearDown() {
+			alive--;
+		}
+
+		public void testOne() {
+		}
+
+		public void testTwo() {
+			fail("two");
+		}
+
+		public void testThree() {
+		}
+	}
+
+	@Override
+	protected void setUp() {
+		created= 0;
+		alive= 0;
+		maxAlive= 0;
+	}
+
+	public void testCreatesNoTestCasesUntilRun() {
+		TestSuite suite= new LazyTestSuite(Counted.class);
+		assertEquals(0, created);
+		assertEquals(3, suite.countTestCases());
+		assertEquals(3, suite.testCount());
+		TestResult result= new TestResult();
+		suite.run(result);
+		assertEquals(3, created);
+		assertEquals(1, maxAlive);
+		assertEquals(3, result.runCount());
+		assertEquals(1, result.failureCount());
+	}
+
+	public void testAddTestSuiteIsLazy() {
+		TestSuite suite= new LazyTestSuite();
+		suite.addTestSuite(Counted.class);
+		assertEquals(3, suite.countTestCases());
+		assertEquals(0, created);
+	}
+
+	public void testDescriptionsMatchEagerSuite() {
+		Description lazy= new JUnit38ClassRunner(new LazyTestSuite(Counted.class)).getDescription();
+		assertEquals(0, created);
+		Description eager= new JUnit38ClassRunner(Counted.class).getDescription();
+		assertEquals(eager.getChildren(), lazy.getChildren());
+	}
+
+	public void testRunsThroughJUnitCore() {
+		JUnit38ClassRunner runner= new JUnit38ClassRunner(new LazyTestSuite(Counted.class));
+		Description two= Description.createTestDescription(Counted.class, "testTwo");
+		Result result= new JUnitCore().run(Request.runner(runner).filterWith(two));
+		assertEquals(1, result.getRunCount());
+		assertEquals(1, created);
+		assertEquals(two, result.getFailures().get(0).getDescription());
+	}
+}
@@ -18,10 +18,18 @@ import org.junit.tests.experimental.ExperimentalTests;
 import org.junit.tests.experimental.MatcherTest;
 import org.junit.tests.experimental.categories.CategoriesAndParameterizedTest;
 import org.junit.tests.experimental.categories.CategoryTest;
+import org.junit.tests.experimental.forked.ForkedComputerTest;
+import org.junit.tests.experimental.max.DurationBalancedComputerTest;
+import org.junit.tests.experimental.max.ImpactRecorderTest;
 import org.junit.tests.experimental.max.JUnit38SortingTest;
+import org.junit.tests.experimental.max.MaxHistoryStatisticsTest;
+import org.junit.tests.experimental.max.MaxHistoryStoreTest;
 import org.junit.tests.experimental.max.MaxStarterTest;
+import org.junit.tests.experimental.parallel.BoundedParallelComputerTest;
 import org.junit.tests.experimental.parallel.ParallelClassTest;
 import org.junit.tests.experimental.parallel.ParallelMethodTest;
+import org.junit.tests.experimental.parallel.ResourceLockTest;
+import org.junit.tests.experimental.parallel.VirtualThreadComputerTest;
 import org.junit.tests.experimental.rules.ClassRulesTest;
 import org.junit.tests.experimental.rules.ExpectedExceptionRuleTest;
 import org.junit.tests.experimental.rules.ExternalResourceRuleTest;
@@ -40,12 +48,15 @@ import org.junit.tests.junit3compatibility.JUnit38ClassRunnerTest;
 import org.junit.tests.junit3compatibility.OldTestClassAdaptingListenerTest;
 import org.junit.tests.junit3compatibility.OldTests;
 import org.junit.tests.junit3compatibility.SuiteMethodTest;
+import org.junit.tests.listening.AsynchronousRunListenerTest;
 import org.junit.tests.listening.ListenerTest;
+import org.junit.tests.listening.RunNotifierConcurrencyTest;
 import org.junit.tests.listening.RunnerTest;
 import org.junit.tests.listening.TestListenerTest;
 import org.junit.tests.listening.TextListenerTest;
 import org.junit.tests.listening.UserStopTest;
 import org.junit.tests.manipulation.FilterableTest;
+import org.junit.tests.manipulation.MultipleMethodsTest;
 import org.junit.tests.manipulation.SingleMethodTest;
 import org.junit.tests.manipulation.SortableTest;
 import org.junit.tests.running.classes.EnclosedTest;
@@ -57,12 +68,15 @@ import org.junit.tests.running.classes.TestClassTest;
 import org.junit.tests.running.classes.UseSuiteAsASuperclassTest;
 import org.junit.tests.running.core.CommandLineTest;
 import org.junit.tests.running.core.JUnitCoreReturnsCorrectExitCodeTest;
+import org.junit.tests.running.core.FailureRetentionTest;
+import org.junit.tests.running.core.StopPolicyTest;
 import org.junit.tests.running.core.SystemExitTest;
 import org.junit.tests.running.methods.AnnotationTest;
 import org.junit.tests.running.methods.ExpectedTest;
 import org.junit.tests.running.methods.InheritedTestTest;
 import org.junit.tests.running.methods.ParameterizedTestMethodTest;
 import org.junit.tests.running.methods.TestMethodTest;
+import org.junit.tests.running.methods.ReleaseTestInstancesTest;
 import org.junit.tests.running.methods.TimeoutTest;
 import org.junit.tests.validation.BadlyFormedClassesTest;
 import org.junit.tests.validation.FailedConstructionTest;
@@ -96,15 +110,21 @@ import org.junit.tests.validation.ValidationTest;
 	TestMethodTest.class,
 	TextListenerTest.class,
 	TimeoutTest.class,
+	ReleaseTestInstancesTest.class,
 	EnclosedTest.class,
 	ParameterizedTestMethodTest.class,
 	InitializationErrorForwardCompatibilityTest.class,
 	SingleMethodTest.class,
+	MultipleMethodsTest.class,
 	ValidationTest.class,
 	UserStopTest.class,
+	RunNotifierConcurrencyTest.class,
+	AsynchronousRunListenerTest.class,
 	SortableTest.class,
 	JUnit38ClassRunnerTest.class,
 	SystemExitTest.class,
+	StopPolicyTest.class,
+	FailureRetentionTest.class,
 	JUnitCoreReturnsCorrectExitCodeTest.class,
 	InaccessibleBaseClassTest.class,
 	SuiteMethodTest.class,
@@ -126,11 +146,19 @@ import org.junit.tests.validation.ValidationTest;
 	UseSuiteAsASuperclassTest.class,
 	FilterableTest.class,
 	MaxStarterTest.class,
+	MaxHistoryStoreTest.class,
+	MaxHistoryStatisticsTest.class,
+	DurationBalancedComputerTest.class,
+	ImpactRecorderTest.class,
 	JUnit38SortingTest.class,
 	RulesTest.class,
 	TimeoutRuleTest.class,
 	ParallelClassTest.class,
 	ParallelMethodTest.class,
+	BoundedParallelComputerTest.class,
+	VirtualThreadComputerTest.class,
+	ResourceLockTest.class,
+	ForkedComputerTest.class,
 	ParentRunnerTest.class,
 	NameRulesTest.class,
 	ClassRulesTest.class,
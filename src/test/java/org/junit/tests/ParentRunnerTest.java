@@ -1,10 +1,21 @@
 package org.junit.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Comparator;
+
 import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.Sorter;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.ParentRunner;
+import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerScheduler;
 
@@ -42,4 +53,58 @@ public class ParentRunnerTest {
 		runner.run(new RunNotifier());
 		assertEquals("before apple after before banana after afterAll ", log);
 	}
+
+	public static class CountingRunner extends BlockJUnit4ClassRunner {
+		int describeCount= 0;
+
+		public CountingRunner(Class<?> klass) throws InitializationError {
+			super(klass);
+		}
+
+		@Override
+		protected Description describeChild(FrameworkMethod method) {
+			describeCount++;
+			return super.describeChild(method);
+		}
+	}
+
+	@Test
+	public void descriptionIsBuiltOnce() throws InitializationError {
+		CountingRunner runner= new CountingRunner(FruitTest.class);
+		Description first= runner.getDescription();
+		int count= runner.describeCount;
+		assertSame(first, runner.getDescription());
+		assertEquals(count, runner.describeCount);
+	}
+
+	@Test
+	public void filterInvalidatesDescription() throws Exception {
+		ParentRunner<?> runner= new BlockJUnit4ClassRunner(FruitTest.class);
+		assertEquals(2, runner.getDescription().testCount());
+		runner.filter(Filter.matchMethodDescription(Description
+				.createTestDescription(FruitTest.class, "apple")));
+		assertEquals(1, runner.getDescription().testCount());
+	}
+
+	@Test
+	public void sortInvalidatesDescription() throws Exception {
+		ParentRunner<?> runner= new BlockJUnit4ClassRunner(FruitTest.class);
+		runner.getDescription();
+		runner.sort(new Sorter(new Comparator<Description>() {
+			public int compare(Description o1, Description o2) {
+				return o2.getDisplayName().compareTo(o1.getDisplayName());
+			}
+		}));
+		assertEquals("banana", runner.getDescription().getChildren().get(0)
+				.getMethodName());
+	}
+
+	@Test
+	public void filteringSuiteChildRefreshesSuiteDescription() throws Exception {
+		Runner suite= Request.classes(FruitTest.class).getRunner();
+		assertEquals(2, suite.getDescription().testCount());
+		((Filterable) suite).filter(Filter.matchMethodDescription(Description
+				.createTestDescription(FruitTest.class, "banana")));
+		assertEquals(1, suite.getDescription().testCount());
+	}
 }
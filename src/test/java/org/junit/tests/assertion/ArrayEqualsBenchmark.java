@@ -0,0 +1,80 @@
+package org.junit.tests.assertion;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.internal.ComparisonCriteria;
+
+/**
+ * Prints how long {@code assertArrayEquals} takes on large primitive arrays,
+ * next to the element-by-element path every array took before, which boxes
+ * each element. Set {@code TESTING_PERFORMANCE} to run it.
+ */
+public class ArrayEqualsBenchmark {
+	private static final boolean TESTING_PERFORMANCE= false;
+
+	private static final int ROUNDS= 5;
+
+	// The path every array took before primitive arrays were special-cased
+	private static final ComparisonCriteria BOXING= new ComparisonCriteria() {
+		@Override
+		protected void assertElementsEqual(Object expected, Object actual) {
+			Assert.assertEquals(expected, actual);
+		}
+	};
+
+	private interface Comparison {
+		void compare();
+	}
+
+	@Test public void bytes() {
+		assumeTrue(TESTING_PERFORMANCE);
+		final byte[] expecteds= new byte[16 * 1024 * 1024];
+		final byte[] actuals= expecteds.clone();
+		compare("byte[16M]", new Comparison() {
+			public void compare() {
+				assertArrayEquals(expecteds, actuals);
+			}
+		}, new Comparison() {
+			public void compare() {
+				BOXING.arrayEquals(null, expecteds, actuals);
+			}
+		});
+	}
+
+	@Test public void longs() {
+		assumeTrue(TESTING_PERFORMANCE);
+		final long[] expecteds= new long[2 * 1024 * 1024];
+		for (int i= 0; i < expecteds.length; i++)
+			expecteds[i]= i * 31L;
+		final long[] actuals= expecteds.clone();
+		compare("long[2M]", new Comparison() {
+			public void compare() {
+				assertArrayEquals(expecteds, actuals);
+			}
+		}, new Comparison() {
+			public void compare() {
+				BOXING.arrayEquals(null, expecteds, actuals);
+			}
+		});
+	}
+
+	private void compare(String name, Comparison specialized, Comparison boxing) {
+		long specializedNanos= fastest(specialized);
+		long boxingNanos= fastest(boxing);
+		System.out.println(String.format("%-10s specialized %8.2f ms, boxing %8.2f ms",
+				name, specializedNanos / 1e6, boxingNanos / 1e6));
+	}
+
+	private long fastest(Comparison comparison) {
+		long fastest= Long.MAX_VALUE;
+		for (int i= 0; i < ROUNDS; i++) {
+			long start= System.nanoTime();
+			comparison.compare();
+			fastest= Math.min(fastest, System.nanoTime() - start);
+		}
+		return fastest;
+	}
+}
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -136,6 +137,45 @@ public class AssertionTest {
 		assertArrayEquals(new float[] {1.0f}, new float[] {2.5f}, 1.0f);
 	}
 
+	@Test
+	public void primitiveArraysReportFirstDifference() {
+		byte[] bytes= new byte[1000];
+		byte[] otherBytes= bytes.clone();
+		otherBytes[999]= 1;
+		assertFirstDifference(999, bytes, otherBytes);
+		long[] longs= new long[1000];
+		long[] otherLongs= longs.clone();
+		otherLongs[500]= -1;
+		assertFirstDifference(500, longs, otherLongs);
+		char[] chars= "abcd".toCharArray();
+		assertFirstDifference(2, chars, "abzd".toCharArray());
+	}
+
+	private void assertFirstDifference(int index, Object expecteds, Object actuals) {
+		try {
+			assertArrayEquals(new Object[] {expecteds}, new Object[] {actuals});
+			fail();
+		} catch (ArrayComparisonFailure e) {
+			assertTrue(e.getMessage().startsWith("arrays first differed at element [0][" + index + "]"));
+		}
+	}
+
+	@Test
+	public void nansInDoubleArraysAreEqual() {
+		assertArrayEquals(new double[] {1.0, Double.NaN}, new double[] {1.0, Double.NaN}, 0.0);
+		assertArrayEquals(new float[] {1.0f, Float.NaN}, new float[] {1.0f, Float.NaN}, 0.0f);
+	}
+
+	@Test(expected=AssertionError.class)
+	public void zeroDoesNotExactlyEqualNegativeZero() {
+		assertArrayEquals(new Object[] {new double[] {0.0}}, new Object[] {new double[] {-0.0}});
+	}
+
+	@Test(expected=AssertionError.class)
+	public void intArrayDoesNotEqualLongArray() {
+		assertArrayEquals(new Object[] {new int[] {1}}, new Object[] {new long[] {1}});
+	}
+
 	@Test(expected=AssertionError.class)
 	public void IntegerDoesNotEqualLong() {
 		assertEquals(new Integer(1), new Long(1));
@@ -16,16 +16,32 @@ public class SuiteDescriptionTest {
 	@Test public void equalsIsCorrect() {	
 		assertEquals(childless, anotherChildless);
 		assertFalse(childless.equals(namedB));
-		assertFalse(childless.equals(twoKids));
-		assertFalse(twoKids.equals(anotherTwoKids));
 		assertFalse(twoKids.equals(new Integer(5)));
 	}
 
+	@Test public void childrenAreNotCompared() {
+		assertEquals(childless, twoKids);
+		assertEquals(twoKids, anotherTwoKids);
+	}
+
 	@Test public void hashCodeIsReasonable() {
 		assertEquals(childless.hashCode(), anotherChildless.hashCode());
 		assertFalse(childless.hashCode() == namedB.hashCode());
 	}
 	
+	@Test public void uniqueIdDistinguishesEqualNames() {
+		Description first= Description.createSuiteDescription("a", 1);
+		Description second= Description.createSuiteDescription("a", 2);
+		assertFalse(first.equals(second));
+		assertEquals(first, Description.createSuiteDescription("a", 1));
+		assertEquals(first.hashCode(), Description.createSuiteDescription("a", 1).hashCode());
+	}
+
+	@Test public void testsWithSameIdAreEqualEvenWithDifferentNames() {
+		assertEquals(Description.createTestDescription("x.Y", "a", "id"),
+				Description.createTestDescription("x.Z", "b", "id"));
+	}
+
 	private Description descriptionWithTwoKids(String first, String second) {
 		Description twoKids = Description.createSuiteDescription("a");
 		twoKids.addChild(Description.createTestDescription(getClass(), first));
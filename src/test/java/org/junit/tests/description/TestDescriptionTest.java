@@ -1,6 +1,9 @@
 package org.junit.tests.description;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import org.junit.Test;
 import org.junit.runner.Description;
 
@@ -8,4 +11,39 @@ public class TestDescriptionTest {
 	@Test public void equalsIsFalseForNonTestDescription() {
 		assertFalse(Description.createTestDescription(getClass(), "a").equals(new Integer(5)));
 	}
-}
\ No newline at end of file
+
+	@Test public void testDescriptionKnowsItsClassAndMethod() {
+		Description description= Description.createTestDescription(getClass(), "a(b)");
+		assertEquals("a(b)", description.getMethodName());
+		assertEquals(getClass().getName(), description.getClassName());
+		assertSame(getClass(), description.getTestClass());
+	}
+
+	@Test public void testDescriptionFromClassNameIsResolvedLazily() {
+		Description description= Description.createTestDescription(
+				getClass().getName(), "a");
+		assertEquals("a(" + getClass().getName() + ")", description.getDisplayName());
+		assertSame(getClass(), description.getTestClass());
+	}
+
+	@Test public void suiteDescriptionIsParsedFromItsName() {
+		Description description= Description.createSuiteDescription("a("
+				+ getClass().getName() + ")");
+		assertEquals("a", description.getMethodName());
+		assertSame(getClass(), description.getTestClass());
+	}
+
+	@Test public void unresolvableClassIsNull() {
+		Description description= Description.createSuiteDescription("no.such.Class");
+		assertEquals("no.such.Class", description.getClassName());
+		assertNull(description.getMethodName());
+		assertNull(description.getTestClass());
+	}
+
+	@Test public void childlessCopyKeepsStructuredNames() {
+		Description copy= Description.createTestDescription(getClass(), "a")
+				.childlessCopy();
+		assertEquals("a", copy.getMethodName());
+		assertSame(getClass(), copy.getTestClass());
+	}
+}
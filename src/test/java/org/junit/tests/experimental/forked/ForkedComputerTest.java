@@ -0,0 +1,83 @@
+package org.junit.tests.experimental.forked;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+import org.junit.experimental.forked.ForkedComputer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+
+public class ForkedComputerTest {
+	public static String state= null;
+
+	public static String parentJvm= ManagementFactory.getRuntimeMXBean().getName();
+
+	private static String thisJvm() {
+		return ManagementFactory.getRuntimeMXBean().getName();
+	}
+
+	public static class LeaksState {
+		@Test public void leak() {
+			state= "leaked";
+		}
+	}
+
+	public static class SeesNoLeak {
+		@Test public void clean() {
+			assertEquals(null, state);
+		}
+	}
+
+	public static class RecordsJvm {
+		@Test public void fails() {
+			throw new IllegalStateException(thisJvm());
+		}
+		@Test public void passes() {}
+	}
+
+	public static class Crashes {
+		@Test public void exit() {
+			System.exit(3);
+		}
+	}
+
+	@Test(timeout= 60000) public void eachClassGetsAFreshJvm() {
+		Result result= new JUnitCore().run(ForkedComputer.perClass(),
+				LeaksState.class, SeesNoLeak.class);
+		assertTrue(result.getFailures().toString(), result.wasSuccessful());
+		assertEquals(2, result.getRunCount());
+		assertEquals(null, state);
+	}
+
+	@Test(timeout= 60000) public void eventsFromWorkersAreMergedIntoOneResult() {
+		Result result= new JUnitCore().run(new ForkedComputer(2, 5),
+				RecordsJvm.class, LeaksState.class);
+		assertEquals(3, result.getRunCount());
+		assertEquals(1, result.getFailureCount());
+		Description failed= result.getFailures().get(0).getDescription();
+		assertEquals(Description.createTestDescription(RecordsJvm.class, "fails"), failed);
+		assertFalse(parentJvm.equals(result.getFailures().get(0).getMessage()));
+	}
+
+	@Test(timeout= 60000) public void crashedWorkerIsReportedAndReplaced() {
+		Result result= new JUnitCore().run(new ForkedComputer(1, 5),
+				Crashes.class, LeaksState.class);
+		assertEquals(2, result.getRunCount());
+		assertEquals(2, result.getFailureCount());
+	}
+
+	@Test(timeout= 60000) public void filteredRequestsOnlyRunWantedTestsInWorkers() {
+		Request request= Request.classes(new ForkedComputer(1, 5),
+				RecordsJvm.class).filterWith(
+				Description.createTestDescription(RecordsJvm.class, "passes"));
+		Result result= new JUnitCore().run(request);
+		assertEquals(1, result.getRunCount());
+		assertTrue(result.wasSuccessful());
+	}
+}
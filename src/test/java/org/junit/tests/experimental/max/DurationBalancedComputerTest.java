@@ -0,0 +1,94 @@
+package org.junit.tests.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.max.DurationBalancedComputer;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+public class DurationBalancedComputerTest {
+	public static class Short1 {
+		@Test public void a() throws InterruptedException { Thread.sleep(5); }
+	}
+
+	public static class Short2 {
+		@Test public void a() throws InterruptedException { Thread.sleep(5); }
+	}
+
+	public static class Slow {
+		@Test public void a() throws InterruptedException { Thread.sleep(60); }
+		@Test public void b() throws InterruptedException { Thread.sleep(5); }
+	}
+
+	private static class StartOrder extends RunListener {
+		final List<Description> fStarted= Collections
+				.synchronizedList(new ArrayList<Description>());
+
+		@Override
+		public void testStarted(Description description) {
+			fStarted.add(description);
+		}
+	}
+
+	private File fFile;
+
+	@Before public void createFile() throws IOException {
+		fFile= File.createTempFile("DurationBalancedComputerTest", ".log");
+		fFile.delete();
+	}
+
+	@After public void deleteFile() {
+		fFile.delete();
+	}
+
+	private Result run(MaxHistory history, DurationBalancedComputer computer,
+			RunListener listener) {
+		JUnitCore core= new JUnitCore();
+		core.addListener(history.listener());
+		core.addListener(listener);
+		return core.run(computer, Short1.class, Short2.class, Slow.class);
+	}
+
+	@Test(timeout= 5000) public void longestWorkStartsFirst() {
+		MaxHistory history= MaxHistory.forFolder(fFile);
+		run(history, new DurationBalancedComputer(history, false, false, 1),
+				new RunListener());
+
+		StartOrder order= new StartOrder();
+		Result result= run(history, new DurationBalancedComputer(history,
+				false, false, 1), order);
+		assertTrue(result.wasSuccessful());
+		assertEquals(Description.createTestDescription(Slow.class, "a"),
+				order.fStarted.get(0));
+		assertEquals(Description.createTestDescription(Slow.class, "b"),
+				order.fStarted.get(1));
+	}
+
+	@Test(timeout= 5000) public void reportsPredictedAndActualMakespan() {
+		MaxHistory history= MaxHistory.forFolder(fFile);
+		DurationBalancedComputer computer= new DurationBalancedComputer(
+				history, true, true, 2);
+		run(history, computer, new RunListener());
+		assertEquals(0, computer.getPredictedMakespan());
+		assertTrue(computer.getActualMakespan() >= 60000000L);
+
+		Result result= run(history, computer, new RunListener());
+		assertTrue(result.wasSuccessful());
+		assertEquals(4, result.getRunCount());
+		assertTrue(computer.getPredictedMakespan() >= 60000000L);
+		assertTrue(computer.getActualMakespan() >= 60000000L);
+	}
+}
@@ -0,0 +1,142 @@
+package org.junit.tests.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.max.ImpactRecorder;
+import org.junit.experimental.max.TestImpact;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+public class ImpactRecorderTest {
+	public static class Adder {
+		public static int add(int a, int b) {
+			return a + b;
+		}
+	}
+
+	public static class Multiplier {
+		public static int multiply(int a, int b) {
+			return a * b;
+		}
+	}
+
+	public static class Arithmetic {
+		@Test public void add() {
+			assertEquals(3, Adder.add(1, 2));
+		}
+
+		@Test public void multiply() {
+			assertEquals(6, Multiplier.multiply(2, 3));
+		}
+	}
+
+	private static final String ADDER= Adder.class.getName();
+
+	private static final String MULTIPLIER= Multiplier.class.getName();
+
+	private static final Description ADD= Description.createTestDescription(
+			Arithmetic.class, "add");
+
+	private static final Description MULTIPLY= Description
+			.createTestDescription(Arithmetic.class, "multiply");
+
+	private File fFile;
+
+	@Before public void createFile() throws IOException {
+		fFile= File.createTempFile("ImpactRecorderTest", ".ser");
+		fFile.delete();
+	}
+
+	@After public void deleteFile() {
+		fFile.delete();
+		new File(fFile.getPath() + ".impact").delete();
+	}
+
+	private Result record(URL... classPath) throws IOException {
+		ImpactRecorder recorder= new ImpactRecorder(TestImpact
+				.forHistory(fFile), classPath);
+		return recorder.run(new JUnitCore(), Arithmetic.class);
+	}
+
+	private Result record() throws IOException {
+		return record(locationOf(ImpactRecorderTest.class));
+	}
+
+	private static URL locationOf(Class<?> type) {
+		return type.getProtectionDomain().getCodeSource().getLocation();
+	}
+
+	private List<String> testsRunAfterChanging(String... classNames) {
+		final List<String> started= new ArrayList<String>();
+		JUnitCore core= new JUnitCore();
+		core.addListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				started.add(description.getMethodName());
+			}
+		});
+		core.run(Request.aClass(Arithmetic.class).filterWith(
+				TestImpact.forHistory(fFile).impactedBy(classNames)));
+		return started;
+	}
+
+	@Test public void recordsClassesUsedByEachTest() throws IOException {
+		Result result= record();
+		assertTrue(result.wasSuccessful());
+		assertEquals(2, result.getRunCount());
+		TestImpact impact= TestImpact.forHistory(fFile);
+		assertTrue(impact.getUsedClasses(ADD).contains(ADDER));
+		assertFalse(impact.getUsedClasses(ADD).contains(MULTIPLIER));
+		assertTrue(impact.getUsedClasses(MULTIPLY).contains(MULTIPLIER));
+		assertFalse(impact.getUsedClasses(MULTIPLY).contains(ADDER));
+	}
+
+	@Test public void junitOnTheRecordedClassPathIsNotLoadedAgain()
+			throws IOException {
+		Result result= record(locationOf(JUnitCore.class),
+				locationOf(ImpactRecorderTest.class));
+		assertTrue(result.wasSuccessful());
+		assertEquals(2, result.getRunCount());
+		TestImpact impact= TestImpact.forHistory(fFile);
+		assertTrue(impact.getUsedClasses(ADD).contains(ADDER));
+		assertFalse(impact.getUsedClasses(ADD).contains(Test.class.getName()));
+	}
+
+	@Test public void selectsOnlyImpactedTests() throws IOException {
+		record();
+		List<String> started= testsRunAfterChanging(ADDER);
+		assertEquals(1, started.size());
+		assertEquals("add", started.get(0));
+	}
+
+	@Test public void changingTheTestClassSelectsItsTests() throws IOException {
+		record();
+		assertEquals(2, testsRunAfterChanging(Arithmetic.class.getName())
+				.size());
+	}
+
+	@Test public void changingTheOuterClassSelectsTestsUsingNestedClasses()
+			throws IOException {
+		record();
+		assertEquals(2, testsRunAfterChanging(ImpactRecorderTest.class.getName())
+				.size());
+	}
+
+	@Test public void unrecordedTestsAlwaysRun() {
+		assertEquals(2, testsRunAfterChanging("some.other.Class").size());
+	}
+}
@@ -0,0 +1,95 @@
+package org.junit.tests.experimental.max;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+
+public class MaxHistoryStatisticsTest {
+	private static volatile long quickSleep;
+
+	private static volatile boolean quickFails;
+
+	private static volatile boolean slowFails;
+
+	public static class Timed {
+		@Test public void quick() throws InterruptedException {
+			Thread.sleep(quickSleep);
+			if (quickFails)
+				throw new IllegalStateException();
+		}
+
+		@Test public void slow() throws InterruptedException {
+			Thread.sleep(30);
+			if (slowFails)
+				throw new IllegalStateException();
+		}
+	}
+
+	private static final Description QUICK= Description.createTestDescription(
+			Timed.class, "quick");
+
+	private static final Description SLOW= Description.createTestDescription(
+			Timed.class, "slow");
+
+	private File fFile;
+
+	@Before public void createFile() throws IOException {
+		fFile= File.createTempFile("MaxHistoryStatisticsTest", ".log");
+		fFile.delete();
+		quickSleep= 1;
+		quickFails= false;
+		slowFails= false;
+	}
+
+	@After public void deleteFile() {
+		fFile.delete();
+	}
+
+	private void run() {
+		MaxHistory history= MaxHistory.forFolder(fFile);
+		JUnitCore core= new JUnitCore();
+		core.addListener(history.listener());
+		core.run(Request.aClass(Timed.class));
+	}
+
+	private Comparator<Description> comparator() {
+		return MaxHistory.forFolder(fFile).testComparator();
+	}
+
+	@Test public void oneSlowRunDoesNotReorderTests() {
+		for (int i= 0; i < 3; i++)
+			run();
+		quickSleep= 60;
+		run();
+		assertTrue(comparator().compare(QUICK, SLOW) < 0);
+	}
+
+	@Test public void cheaperOfEquallyFlakyTestsComesFirst() {
+		run();
+		quickFails= true;
+		slowFails= true;
+		run();
+		assertTrue(comparator().compare(QUICK, SLOW) < 0);
+	}
+
+	@Test public void frequentFailuresOutrankOneRecentFailure() {
+		quickSleep= 30;
+		quickFails= true;
+		for (int i= 0; i < 4; i++)
+			run();
+		quickFails= false;
+		slowFails= true;
+		run();
+		assertTrue(comparator().compare(QUICK, SLOW) < 0);
+	}
+}
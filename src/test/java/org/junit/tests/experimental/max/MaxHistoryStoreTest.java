@@ -0,0 +1,147 @@
+package org.junit.tests.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.util.Comparator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+
+public class MaxHistoryStoreTest {
+	public static class TwoTests {
+		@Test public void succeed() {}
+		@Test public void fail() { throw new IllegalStateException(); }
+	}
+
+	public static class OneMoreTest {
+		@Test public void succeed() {}
+	}
+
+	private static final Description SUCCEED= Description.createTestDescription(
+			TwoTests.class, "succeed");
+
+	private static final Description FAIL= Description.createTestDescription(
+			TwoTests.class, "fail");
+
+	private static final Description UNKNOWN= Description.createTestDescription(
+			TwoTests.class, "neverRun");
+
+	private File fFile;
+
+	@Before public void createFile() throws IOException {
+		fFile= File.createTempFile("MaxHistoryStoreTest", ".log");
+		fFile.delete();
+	}
+
+	@After public void deleteFile() {
+		fFile.delete();
+	}
+
+	private static void run(MaxHistory history, Class<?> type) {
+		JUnitCore core= new JUnitCore();
+		core.addListener(history.listener());
+		core.run(Request.aClass(type));
+	}
+
+	private static boolean knows(MaxHistory history, Description test) {
+		Comparator<Description> comparator= history.testComparator();
+		return comparator.compare(test, UNKNOWN) > 0;
+	}
+
+	@Test public void historySurvivesReload() {
+		run(MaxHistory.forFolder(fFile), TwoTests.class);
+		MaxHistory reloaded= MaxHistory.forFolder(fFile);
+		assertTrue(knows(reloaded, SUCCEED));
+		assertTrue(knows(reloaded, FAIL));
+		assertTrue("failed test first",
+				reloaded.testComparator().compare(FAIL, SUCCEED) < 0);
+	}
+
+	@Test public void laterRunsOnlyAppend() throws IOException {
+		run(MaxHistory.forFolder(fFile), TwoTests.class);
+		byte[] before= contents();
+		run(MaxHistory.forFolder(fFile), OneMoreTest.class);
+		byte[] after= contents();
+		assertTrue(after.length > before.length);
+		for (int i= 0; i < before.length; i++)
+			assertEquals(before[i], after[i]);
+	}
+
+	@Test public void tornTailIsDropped() throws IOException {
+		run(MaxHistory.forFolder(fFile), TwoTests.class);
+		long intact= fFile.length();
+		run(MaxHistory.forFolder(fFile), OneMoreTest.class);
+		truncate(intact + 3);
+
+		MaxHistory reloaded= MaxHistory.forFolder(fFile);
+		assertTrue(fFile.exists());
+		assertTrue(knows(reloaded, SUCCEED));
+		assertFalse(knows(reloaded, Description.createTestDescription(
+				OneMoreTest.class, "succeed")));
+
+		run(reloaded, OneMoreTest.class);
+		assertTrue(fFile.length() > intact);
+		assertTrue(knows(MaxHistory.forFolder(fFile), Description
+				.createTestDescription(OneMoreTest.class, "succeed")));
+	}
+
+	@Test public void unreadableFileStartsFreshHistory() throws IOException {
+		FileOutputStream out= new FileOutputStream(fFile);
+		out.write(new byte[] { 1, 2, 3 });
+		out.close();
+		MaxHistory history= MaxHistory.forFolder(fFile);
+		assertFalse(knows(history, SUCCEED));
+		run(history, TwoTests.class);
+		assertTrue(knows(MaxHistory.forFolder(fFile), SUCCEED));
+	}
+
+	@Test public void serializedHistoryIsMigrated() throws IOException {
+		MaxHistory history= MaxHistory.forFolder(fFile);
+		run(history, TwoTests.class);
+		ObjectOutputStream out= new ObjectOutputStream(new FileOutputStream(
+				fFile));
+		out.writeObject(history);
+		out.close();
+
+		MaxHistory migrated= MaxHistory.forFolder(fFile);
+		assertTrue(knows(migrated, SUCCEED));
+		run(migrated, OneMoreTest.class);
+		assertEquals('J', contents()[0]);
+		MaxHistory reloaded= MaxHistory.forFolder(fFile);
+		assertTrue(knows(reloaded, FAIL));
+		assertTrue(knows(reloaded, Description.createTestDescription(
+				OneMoreTest.class, "succeed")));
+	}
+
+	private byte[] contents() throws IOException {
+		RandomAccessFile file= new RandomAccessFile(fFile, "r");
+		try {
+			byte[] bytes= new byte[(int) file.length()];
+			file.readFully(bytes);
+			return bytes;
+		} finally {
+			file.close();
+		}
+	}
+
+	private void truncate(long length) throws IOException {
+		RandomAccessFile file= new RandomAccessFile(fFile, "rw");
+		try {
+			file.setLength(length);
+		} finally {
+			file.close();
+		}
+	}
+}
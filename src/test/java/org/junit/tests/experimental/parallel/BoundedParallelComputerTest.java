@@ -0,0 +1,87 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class BoundedParallelComputerTest {
+	private static final AtomicInteger running= new AtomicInteger();
+
+	private static final AtomicInteger maxRunning= new AtomicInteger();
+
+	private static final Set<String> threadNames= Collections
+			.synchronizedSet(new HashSet<String>());
+
+	private static void work() throws InterruptedException {
+		int now= running.incrementAndGet();
+		synchronized (maxRunning) {
+			if (now > maxRunning.get())
+				maxRunning.set(now);
+		}
+		threadNames.add(Thread.currentThread().getName());
+		Thread.sleep(50);
+		running.decrementAndGet();
+	}
+
+	public static class Example1 {
+		@Test public void one() throws InterruptedException { work(); }
+		@Test public void two() throws InterruptedException { work(); }
+		@Test public void three() throws InterruptedException { work(); }
+	}
+
+	public static class Example2 {
+		@Test public void one() throws InterruptedException { work(); }
+		@Test public void two() throws InterruptedException { work(); }
+		@Test public void three() throws InterruptedException { work(); }
+	}
+
+	public static class Example3 {
+		@Test public void one() throws InterruptedException { work(); }
+		@Test public void two() throws InterruptedException { work(); }
+		@Test public void three() throws InterruptedException { work(); }
+	}
+
+	@Before public void reset() {
+		running.set(0);
+		maxRunning.set(0);
+		threadNames.clear();
+	}
+
+	@Test(timeout=5000) public void nestedLevelsShareOneBoundedPool() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true, 2),
+				Example1.class, Example2.class, Example3.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(9, result.getRunCount());
+		assertTrue("at most two workers plus the calling thread",
+				maxRunning.get() <= 3);
+		assertTrue(threadNames.size() <= 3);
+	}
+
+	@Test(timeout=5000) public void singleWorkerDoesNotDeadlockOnNestedJoins() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true, 1),
+				Example1.class, Example2.class, Example3.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(9, result.getRunCount());
+	}
+
+	@Test(timeout=5000) public void computerCanBeReusedForSeveralRuns() {
+		ParallelComputer computer= new ParallelComputer(false, true, 2);
+		assertTrue(JUnitCore.runClasses(computer, Example1.class).wasSuccessful());
+		assertTrue(JUnitCore.runClasses(computer, Example2.class).wasSuccessful());
+	}
+
+	@Test(expected= IllegalArgumentException.class)
+	public void parallelismMustBePositive() {
+		new ParallelComputer(true, true, 0);
+	}
+}
@@ -0,0 +1,166 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.resources.ResourceLock;
+import org.junit.experimental.resources.ResourceLocks;
+import org.junit.experimental.resources.ResourceLock.Mode;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class ResourceLockTest {
+	private static class Usage {
+		final AtomicInteger fCurrent= new AtomicInteger();
+
+		final AtomicInteger fMax= new AtomicInteger();
+
+		void use() throws InterruptedException {
+			acquire();
+			Thread.sleep(40);
+			release();
+		}
+
+		void acquire() {
+			int now= fCurrent.incrementAndGet();
+			synchronized (fMax) {
+				if (now > fMax.get())
+					fMax.set(now);
+			}
+		}
+
+		void release() {
+			fCurrent.decrementAndGet();
+		}
+	}
+
+	private static final Usage port= new Usage();
+
+	private static final Usage config= new Usage();
+
+	private static final Usage unlocked= new Usage();
+
+	private static final Usage server= new Usage();
+
+	private static final AtomicBoolean writing= new AtomicBoolean();
+
+	private static final AtomicBoolean readWhileWriting= new AtomicBoolean();
+
+	@ResourceLock("port")
+	public static class UsesPort {
+		@Test public void a() throws InterruptedException { port.use(); }
+		@Test public void b() throws InterruptedException { port.use(); }
+		@Test public void c() throws InterruptedException { port.use(); }
+	}
+
+	public static class AlsoUsesPort {
+		@ResourceLock("port")
+		@Test public void d() throws InterruptedException { port.use(); }
+
+		@ResourceLocks( { @ResourceLock(value= "port"),
+				@ResourceLock(value= "config", mode= Mode.READ) })
+		@Test public void e() throws InterruptedException { port.use(); }
+	}
+
+	public static class ReadsConfig {
+		@ResourceLock(value= "config", mode= Mode.READ)
+		@Test public void a() throws InterruptedException { read(); }
+
+		@ResourceLock(value= "config", mode= Mode.READ)
+		@Test public void b() throws InterruptedException { read(); }
+
+		@ResourceLock(value= "config", mode= Mode.READ)
+		@Test public void c() throws InterruptedException { read(); }
+
+		@ResourceLock("config")
+		@Test public void write() throws InterruptedException {
+			writing.set(true);
+			config.use();
+			writing.set(false);
+		}
+
+		private void read() throws InterruptedException {
+			if (writing.get())
+				readWhileWriting.set(true);
+			config.use();
+			if (writing.get())
+				readWhileWriting.set(true);
+		}
+	}
+
+	@ResourceLock("port")
+	public static class AlsoUsesPortOnClass {
+		@Test public void a() throws InterruptedException { port.use(); }
+		@Test public void b() throws InterruptedException { port.use(); }
+	}
+
+	@ResourceLock("server")
+	public static class StartsServer {
+		@BeforeClass public static void start() { server.acquire(); }
+		@AfterClass public static void stop() { server.release(); }
+		@Test public void a() throws InterruptedException { Thread.sleep(40); }
+	}
+
+	@ResourceLock("server")
+	public static class AlsoStartsServer {
+		@BeforeClass public static void start() { server.acquire(); }
+		@AfterClass public static void stop() { server.release(); }
+		@Test public void a() throws InterruptedException { Thread.sleep(40); }
+	}
+
+	public static class Unlocked {
+		@Test public void a() throws InterruptedException { unlocked.use(); }
+		@Test public void b() throws InterruptedException { unlocked.use(); }
+		@Test public void c() throws InterruptedException { unlocked.use(); }
+	}
+
+	@Before public void reset() {
+		for (Usage each : new Usage[] { port, config, unlocked, server }) {
+			each.fCurrent.set(0);
+			each.fMax.set(0);
+		}
+		readWhileWriting.set(false);
+	}
+
+	@Test(timeout= 10000) public void testsSharingAResourceRunOneAtATime() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true, 8),
+				UsesPort.class, AlsoUsesPort.class, Unlocked.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(8, result.getRunCount());
+		assertEquals(1, port.fMax.get());
+		assertTrue(unlocked.fMax.get() > 1);
+	}
+
+	@Test(timeout= 10000) public void locksHoldWhenOnlyClassesRunInParallel() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, false, 8),
+				UsesPort.class, AlsoUsesPortOnClass.class, AlsoUsesPort.class,
+				Unlocked.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(10, result.getRunCount());
+		assertEquals(1, port.fMax.get());
+	}
+
+	@Test(timeout= 10000) public void classLevelCodeRunsHoldingTheLocks() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true, 8),
+				StartsServer.class, AlsoStartsServer.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(1, server.fMax.get());
+	}
+
+	@Test(timeout= 10000) public void readersShareButExcludeWriters() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(false, true, 8),
+				ReadsConfig.class);
+		assertTrue(result.wasSuccessful());
+		assertTrue(config.fMax.get() > 1);
+		assertFalse(readWhileWriting.get());
+	}
+}
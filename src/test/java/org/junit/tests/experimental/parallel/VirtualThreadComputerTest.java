@@ -0,0 +1,65 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.VirtualThreadComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class VirtualThreadComputerTest {
+	private static final AtomicInteger running= new AtomicInteger();
+
+	private static final AtomicInteger maxRunning= new AtomicInteger();
+
+	private static void block() throws InterruptedException {
+		int now= running.incrementAndGet();
+		synchronized (maxRunning) {
+			if (now > maxRunning.get())
+				maxRunning.set(now);
+		}
+		Thread.sleep(50);
+		running.decrementAndGet();
+	}
+
+	public static class Blocking1 {
+		@Test public void one() throws InterruptedException { block(); }
+		@Test public void two() throws InterruptedException { block(); }
+		@Test public void three() throws InterruptedException { block(); }
+		@Test public void four() throws InterruptedException { block(); }
+	}
+
+	public static class Blocking2 {
+		@Test public void one() throws InterruptedException { block(); }
+		@Test public void two() throws InterruptedException { block(); }
+		@Test public void three() throws InterruptedException { block(); }
+		@Test public void four() throws InterruptedException { block(); }
+	}
+
+	@Before public void reset() {
+		running.set(0);
+		maxRunning.set(0);
+	}
+
+	@Test(timeout= 5000) public void concurrencyIsBounded() {
+		Result result= JUnitCore.runClasses(new VirtualThreadComputer(true,
+				true, 3), Blocking1.class, Blocking2.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(8, result.getRunCount());
+		// the platform fallback may also use the calling thread
+		int bound= VirtualThreadComputer.isSupported() ? 3 : 4;
+		assertTrue(maxRunning.get() <= bound);
+		assertTrue(maxRunning.get() > 1);
+	}
+
+	@Test(timeout= 5000) public void singlePermitDoesNotDeadlockOnNestedSuites() {
+		Result result= JUnitCore.runClasses(new VirtualThreadComputer(true,
+				true, 1), Blocking1.class, Blocking2.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(8, result.getRunCount());
+	}
+}
@@ -1,9 +1,12 @@
 package org.junit.tests.junit3compatibility;
 
 import static org.junit.Assert.assertEquals;
+import junit.extensions.ActiveTestSuite;
 import junit.extensions.TestDecorator;
+import junit.framework.ConcurrentTestResult;
 import junit.framework.JUnit4TestAdapter;
 import junit.framework.TestCase;
+import junit.framework.TestResult;
 import junit.framework.TestSuite;
 import org.junit.Assert;
 import org.junit.Test;
@@ -76,4 +79,29 @@ public class JUnit38ClassRunnerTest {
 		assertEquals("junit.framework.TestSuite$1", failure.getDescription().getClassName());
 	}
 
+	static Class<?> resultClass;
+
+	static public class RecordsResult extends TestCase {
+		public RecordsResult() {
+			super("testNothing");
+		}
+
+		@Override
+		public void run(TestResult result) {
+			resultClass= result.getClass();
+			super.run(result);
+		}
+
+		public void testNothing() {
+		}
+	}
+
+	@Test public void plainTestResultUnlessRunInParallel() {
+		new JUnitCore().run(new JUnit38ClassRunner(new TestSuite(RecordsResult.class)));
+		assertEquals(TestResult.class, resultClass);
+		ActiveTestSuite active= new ActiveTestSuite();
+		active.addTest(new RecordsResult());
+		new JUnitCore().run(new JUnit38ClassRunner(active));
+		assertEquals(ConcurrentTestResult.class, resultClass);
+	}
 }
@@ -0,0 +1,145 @@
+package org.junit.tests.listening;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.AsynchronousRunListener;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+public class AsynchronousRunListenerTest {
+	public static class ThreeTests {
+		@Test public void a() {}
+		@Test public void b() { throw new IllegalStateException(); }
+		@Test public void c() {}
+	}
+
+	private static class RecordingListener extends RunListener {
+		final List<String> fEvents= Collections.synchronizedList(new ArrayList<String>());
+
+		volatile Thread fThread;
+
+		@Override
+		public void testRunStarted(Description description) {
+			fThread= Thread.currentThread();
+			fEvents.add("runStarted");
+		}
+
+		@Override
+		public void testStarted(Description description) throws Exception {
+			fEvents.add("started " + description.getMethodName());
+		}
+
+		@Override
+		public void testFailure(Failure failure) {
+			fEvents.add("failure " + failure.getDescription().getMethodName());
+		}
+
+		@Override
+		public void testFinished(Description description) throws Exception {
+			Thread.sleep(20);
+			fEvents.add("finished " + description.getMethodName());
+		}
+
+		@Override
+		public void testRunFinished(Result result) {
+			fEvents.add("runFinished");
+		}
+	}
+
+	@Test public void deliversAllEventsInOrderBeforeRunReturns() {
+		RecordingListener recording= new RecordingListener();
+		JUnitCore core= new JUnitCore();
+		core.addListener(new AsynchronousRunListener(recording, 2, 2));
+		Result result= core.run(ThreeTests.class);
+		assertEquals(1, result.getFailureCount());
+		List<String> events= new ArrayList<String>(recording.fEvents);
+		assertEquals("runStarted", events.get(0));
+		assertEquals("runFinished", events.get(events.size() - 1));
+		assertEquals(9, events.size());
+		assertTrue(events.indexOf("failure b") > events.indexOf("started b"));
+		assertTrue(events.indexOf("finished b") > events.indexOf("failure b"));
+	}
+
+	@Test public void deliversOnAnotherThread() {
+		RecordingListener recording= new RecordingListener();
+		JUnitCore core= new JUnitCore();
+		core.addListener(new AsynchronousRunListener(recording));
+		core.run(ThreeTests.class);
+		assertFalse(Thread.currentThread() == recording.fThread);
+	}
+
+	@Test public void oneDispatcherServesTheWholeRunAndStops() {
+		final List<Thread> threads= Collections.synchronizedList(new ArrayList<Thread>());
+		RecordingListener recording= new RecordingListener() {
+			@Override
+			public void testStarted(Description description) throws Exception {
+				threads.add(Thread.currentThread());
+			}
+		};
+		JUnitCore core= new JUnitCore();
+		core.addListener(new AsynchronousRunListener(recording));
+		core.run(ThreeTests.class);
+		assertEquals(3, threads.size());
+		assertTrue(threads.get(0) == recording.fThread);
+		assertTrue(threads.get(2) == recording.fThread);
+		assertFalse(recording.fThread.isAlive());
+	}
+
+	@Test public void failingDelegateIsReportedAndRemoved() {
+		JUnitCore core= new JUnitCore();
+		core.addListener(new AsynchronousRunListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				throw new RuntimeException("listener broke");
+			}
+		}));
+		Result result= core.run(ThreeTests.class);
+		assertEquals(2, result.getFailureCount());
+	}
+
+	public static class LeavesThreadInterrupted {
+		@Test public void a() { Thread.currentThread().interrupt(); }
+		@Test public void b() {}
+	}
+
+	@Test public void interruptedTestThreadDoesNotBreakTheListener() {
+		RecordingListener recording= new RecordingListener();
+		JUnitCore core= new JUnitCore();
+		core.addListener(new AsynchronousRunListener(recording, 1, 1));
+		Result result= core.run(LeavesThreadInterrupted.class);
+		Thread.interrupted();
+		assertEquals(0, result.getFailureCount());
+		assertEquals("runFinished", recording.fEvents.get(recording.fEvents.size() - 1));
+	}
+
+	@Test(timeout= 5000) public void failingDelegateNeverBlocksFiringThreads() {
+		AsynchronousRunListener listener= new AsynchronousRunListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				throw new RuntimeException("listener broke");
+			}
+		}, 1, 1);
+		Description description= Description.createTestDescription(getClass(), "test");
+		for (int i= 0; i < 100; i++)
+			try {
+				listener.testStarted(description);
+			} catch (Exception e) {
+				// reported once the dispatcher has seen it
+			}
+	}
+
+	@Test(expected= IllegalArgumentException.class)
+	public void capacityMustBePositive() {
+		new AsynchronousRunListener(new RunListener(), 0, 1);
+	}
+}
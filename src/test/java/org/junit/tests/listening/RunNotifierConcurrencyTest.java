@@ -0,0 +1,123 @@
+package org.junit.tests.listening;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+public class RunNotifierConcurrencyTest {
+	private static class CountingListener extends RunListener {
+		final AtomicInteger fStarted= new AtomicInteger();
+
+		@Override
+		public void testStarted(Description description) {
+			fStarted.incrementAndGet();
+		}
+	}
+
+	private static final Description DESCRIPTION= Description
+			.createTestDescription(RunNotifierConcurrencyTest.class, "event");
+
+	private static long fireConcurrently(final RunNotifier notifier,
+			int threads, final int eventsPerThread) throws InterruptedException {
+		final CountDownLatch start= new CountDownLatch(1);
+		final CountDownLatch done= new CountDownLatch(threads);
+		for (int i= 0; i < threads; i++)
+			new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int j= 0; j < eventsPerThread; j++)
+							notifier.fireTestStarted(DESCRIPTION);
+					} catch (InterruptedException e) {
+						// fall through
+					} finally {
+						done.countDown();
+					}
+				}
+			}.start();
+		long begin= System.nanoTime();
+		start.countDown();
+		done.await();
+		return System.nanoTime() - begin;
+	}
+
+	@Test public void everyEventReachesEveryListenerUnderContention()
+			throws InterruptedException {
+		RunNotifier notifier= new RunNotifier();
+		CountingListener first= new CountingListener();
+		CountingListener second= new CountingListener();
+		notifier.addListener(first);
+		notifier.addListener(second);
+		fireConcurrently(notifier, 8, 1000);
+		assertEquals(8000, first.fStarted.get());
+		assertEquals(8000, second.fStarted.get());
+	}
+
+	@Test public void listenersCanBeAddedAndRemovedWhileFiring()
+			throws InterruptedException {
+		final RunNotifier notifier= new RunNotifier();
+		CountingListener steady= new CountingListener();
+		notifier.addListener(steady);
+		Thread churn= new Thread() {
+			@Override
+			public void run() {
+				for (int i= 0; i < 1000; i++) {
+					RunListener transientListener= new RunListener();
+					notifier.addListener(transientListener);
+					notifier.removeListener(transientListener);
+				}
+			}
+		};
+		churn.start();
+		fireConcurrently(notifier, 4, 1000);
+		churn.join();
+		assertEquals(4000, steady.fStarted.get());
+	}
+
+	@Test public void addFirstListenerIsNotifiedFirst() {
+		final StringBuilder log= new StringBuilder();
+		RunNotifier notifier= new RunNotifier();
+		notifier.addListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				log.append("second ");
+			}
+		});
+		notifier.addFirstListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				log.append("first ");
+			}
+		});
+		notifier.fireTestStarted(DESCRIPTION);
+		assertEquals("first second ", log.toString());
+	}
+
+	private static final boolean TESTING_PERFORMANCE= false;
+
+	// Prints events/sec for 1, 4, 16 and 64 firing threads. Dispatch takes no
+	// lock, so throughput should grow with the thread count up to the number
+	// of cores instead of collapsing on a shared monitor.
+	@Test public void eventsPerSecondScalesWithThreads()
+			throws InterruptedException {
+		assumeTrue(TESTING_PERFORMANCE);
+		int totalEvents= 4000000;
+		for (int threads : new int[] { 1, 4, 16, 64 }) {
+			RunNotifier notifier= new RunNotifier();
+			notifier.addListener(new CountingListener());
+			notifier.addListener(new RunListener());
+			fireConcurrently(notifier, threads, 100000 / threads); // warm up
+			long nanos= fireConcurrently(notifier, threads, totalEvents / threads);
+			System.out.println(threads + " threads: "
+					+ (totalEvents * 1000000000L / nanos) + " events/sec");
+		}
+	}
+}
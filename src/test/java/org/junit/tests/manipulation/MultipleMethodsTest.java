@@ -0,0 +1,64 @@
+package org.junit.tests.manipulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+public class MultipleMethodsTest {
+	public static class Three {
+		@Test public void one() {}
+		@Test public void two() {}
+		@Test public void three() {}
+	}
+
+	public static class Other {
+		@Test public void one() {}
+		@Test public void two() {}
+	}
+
+	@RunWith(Suite.class)
+	@SuiteClasses({Three.class, Other.class})
+	public static class Both {}
+
+	@Test public void runsOnlyNamedMethods() {
+		Result result= new JUnitCore().run(Request.methods(Three.class, "one", "three"));
+		assertEquals(2, result.getRunCount());
+	}
+
+	@Test public void selectsAcrossClassesOfASuite() {
+		Request request= Request.aClass(Both.class).filterWith(Arrays.asList(
+				Description.createTestDescription(Three.class, "two"),
+				Description.createTestDescription(Other.class, "one"),
+				Description.createTestDescription(Other.class, "two")));
+		assertEquals(3, new JUnitCore().run(request).getRunCount());
+	}
+
+	@Test public void reportsWhenNothingMatches() {
+		Result result= new JUnitCore().run(Request.methods(Three.class, "four"));
+		assertEquals(1, result.getFailureCount());
+	}
+
+	@Test public void suitesAreMatchedThroughTheirChildren() {
+		Filter filter= Filter.matchMethodDescriptions(Arrays.asList(
+				Description.createTestDescription(Three.class, "two")));
+		Description suite= Description.createSuiteDescription("suite");
+		suite.addChild(Description.createTestDescription(Other.class, "two"));
+		assertFalse(filter.shouldRun(suite));
+		Description another= Description.createSuiteDescription("another");
+		another.addChild(suite);
+		another.addChild(Description.createTestDescription(Three.class, "two"));
+		assertTrue(filter.shouldRun(another));
+	}
+}
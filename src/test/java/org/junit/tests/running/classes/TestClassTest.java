@@ -1,7 +1,15 @@
 package org.junit.tests.running.classes;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -83,4 +91,73 @@ public class TestClassTest {
 		assertThat(new TestClass(SubclassWithField.class).getAnnotatedFields(
 				Rule.class).size(), is(1));
 	}
+
+	@Test
+	public void annotationScanIsSharedBetweenInstances() {
+		assertSame(new TestClass(ManyMethods.class).getAnnotatedMethods(Test.class).get(0),
+				new TestClass(ManyMethods.class).getAnnotatedMethods(Test.class).get(0));
+	}
+
+	private static class ChildFirstLoader extends URLClassLoader {
+		ChildFirstLoader() {
+			super(new URL[] { TestClassTest.class.getProtectionDomain()
+					.getCodeSource().getLocation() }, TestClassTest.class
+					.getClassLoader());
+		}
+
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve)
+				throws ClassNotFoundException {
+			if (!name.equals(ManyMethods.class.getName()))
+				return super.loadClass(name, resolve);
+			Class<?> result= findLoadedClass(name);
+			return result == null ? findClass(name) : result;
+		}
+	}
+
+	@Test
+	public void classesOfOtherLoadersAreCachedWhileInUse() throws Exception {
+		Class<?> isolated= new ChildFirstLoader().loadClass(ManyMethods.class
+				.getName());
+		TestClass first= new TestClass(isolated);
+		assertSame(first.getAnnotatedMethods(Test.class).get(0),
+				new TestClass(isolated).getAnnotatedMethods(Test.class).get(0));
+	}
+
+	@Test
+	public void otherLoadersAreNotKeptAlive() throws Exception {
+		ClassLoader loader= new ChildFirstLoader();
+		new TestClass(loader.loadClass(ManyMethods.class.getName()));
+		WeakReference<ClassLoader> reference= new WeakReference<ClassLoader>(loader);
+		loader= null;
+		for (int i= 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(reference.get());
+	}
+
+	@Test
+	public void multipleConstructorsAreReportedEvenWhenCached() {
+		try {
+			new TestClass(TwoConstructors.class);
+		} catch (IllegalArgumentException expected) {
+		}
+		try {
+			new TestClass(TwoConstructors.class);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	@Test(expected= UnsupportedOperationException.class)
+	public void annotatedMethodsCannotBeModified() {
+		new TestClass(ManyMethods.class).getAnnotatedMethods(Test.class).clear();
+	}
+
+	@Test
+	public void missingAnnotationsYieldEmptyList() {
+		assertThat(new TestClass(ManyMethods.class).getAnnotatedMethods(
+				Rule.class).size(), is(0));
+	}
 }
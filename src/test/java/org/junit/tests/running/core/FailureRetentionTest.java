@@ -0,0 +1,138 @@
+package org.junit.tests.running.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.internal.TextListener;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+
+public class FailureRetentionTest {
+	public static class BrokenFixture {
+		@Before public void before() { throw new IllegalStateException("broken"); }
+		@Test public void a() {}
+		@Test public void b() {}
+		@Test public void c() {}
+		@Test public void d() {}
+		@Test public void e() {}
+	}
+
+	public static class DistinctFailures {
+		@Test public void a() { fail("a"); }
+		@Test public void b() { fail("b"); }
+		@Test public void c() { fail("c"); }
+	}
+
+	@Test public void failuresAreCountedButNotAllKept() {
+		JUnitCore core= new JUnitCore();
+		core.setMaxRetainedFailures(2);
+		Result result= core.run(BrokenFixture.class, DistinctFailures.class);
+		assertEquals(8, result.getFailureCount());
+		assertEquals(2, result.getFailures().size());
+		assertEquals(6, result.getOmittedFailureCount());
+	}
+
+	@Test public void identicalTracesAreKeptOnce() {
+		JUnitCore core= new JUnitCore();
+		core.setMaxRetainedFailures(100);
+		Result result= core.run(BrokenFixture.class, DistinctFailures.class);
+		assertEquals(8, result.getFailureCount());
+		assertEquals(4, result.getFailures().size());
+	}
+
+	@Test public void everyFailureIsSpilled() throws IOException {
+		File spill= File.createTempFile("failures", ".txt");
+		spill.deleteOnExit();
+		JUnitCore core= new JUnitCore();
+		core.setMaxRetainedFailures(1);
+		core.setFailureSpillFile(spill);
+		Result result= core.run(BrokenFixture.class, DistinctFailures.class);
+		assertEquals(spill, result.getFailureSpillFile());
+		int headers= 0;
+		BufferedReader reader= new BufferedReader(new FileReader(spill));
+		try {
+			for (String line= reader.readLine(); line != null; line= reader.readLine())
+				if (line.matches("\\d+\\) .*"))
+					headers++;
+		} finally {
+			reader.close();
+		}
+		assertEquals(8, headers);
+	}
+
+	@Test public void spillFileAloneBoundsRetainedFailures() throws IOException {
+		File spill= File.createTempFile("failures", ".txt");
+		spill.deleteOnExit();
+		JUnitCore core= new JUnitCore();
+		core.setFailureSpillFile(spill);
+		Result result= core.run(BrokenFixture.class, DistinctFailures.class);
+		assertEquals(8, result.getFailureCount());
+		assertEquals(4, result.getFailures().size());
+	}
+
+	public static class ReadsSpillBetweenFailures extends Runner {
+		static File fSpill;
+
+		static long fLengthAfterFirstFailure;
+
+		private final Description fDescription= Description.createTestDescription(
+				ReadsSpillBetweenFailures.class, "test");
+
+		public ReadsSpillBetweenFailures(Class<?> klass) {
+		}
+
+		@Override
+		public Description getDescription() {
+			return fDescription;
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+			notifier.fireTestStarted(fDescription);
+			notifier.fireTestFailure(new Failure(fDescription, new Exception("first")));
+			fLengthAfterFirstFailure= fSpill.length();
+			notifier.fireTestFinished(fDescription);
+		}
+	}
+
+	@RunWith(ReadsSpillBetweenFailures.class)
+	public static class SpilledDuringTheRun {
+	}
+
+	@Test public void failuresAreSpilledAsTheyHappen() throws IOException {
+		File spill= File.createTempFile("failures", ".txt");
+		spill.deleteOnExit();
+		ReadsSpillBetweenFailures.fSpill= spill;
+		JUnitCore core= new JUnitCore();
+		core.setFailureSpillFile(spill);
+		core.run(SpilledDuringTheRun.class);
+		assertTrue(ReadsSpillBetweenFailures.fLengthAfterFirstFailure > 0);
+	}
+
+	@Test public void textListenerReportsOmittedFailures() {
+		ByteArrayOutputStream out= new ByteArrayOutputStream();
+		JUnitCore core= new JUnitCore();
+		core.setMaxRetainedFailures(2);
+		core.addListener(new TextListener(new PrintStream(out)));
+		core.run(BrokenFixture.class, DistinctFailures.class);
+		String output= out.toString();
+		assertTrue(output.contains("There were 8 failures:"));
+		assertTrue(output.contains("6 more not shown"));
+		assertTrue(output.contains("Failures: 8"));
+	}
+}
@@ -0,0 +1,114 @@
+package org.junit.tests.running.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.StopPolicy;
+import org.junit.runner.manipulation.Filter;
+
+public class StopPolicyTest {
+	public static class FirstFails {
+		@Test public void a() { throw new IllegalStateException(); }
+		@Test public void b() {}
+		@Test public void c() {}
+	}
+
+	public static class SmokeAndRegular {
+		@Test public void a() { throw new IllegalStateException(); }
+		@Test public void b() {}
+		@Test public void cSmoke() { throw new IllegalStateException(); }
+		@Test public void d() {}
+	}
+
+	public static class Many {
+		@Test public void a() throws InterruptedException { throw new IllegalStateException(); }
+		@Test public void b() throws InterruptedException { Thread.sleep(20); }
+		@Test public void c() throws InterruptedException { Thread.sleep(20); }
+		@Test public void d() throws InterruptedException { Thread.sleep(20); }
+		@Test public void e() throws InterruptedException { Thread.sleep(20); }
+		@Test public void f() throws InterruptedException { Thread.sleep(20); }
+		@Test public void g() throws InterruptedException { Thread.sleep(20); }
+		@Test public void h() throws InterruptedException { Thread.sleep(20); }
+	}
+
+	private static final Comparator<Description> BY_NAME= new Comparator<Description>() {
+		public int compare(Description o1, Description o2) {
+			return o1.getDisplayName().compareTo(o2.getDisplayName());
+		}
+	};
+
+	private static final Filter SMOKE= new Filter() {
+		@Override
+		public boolean shouldRun(Description description) {
+			return description.getMethodName().endsWith("Smoke");
+		}
+
+		@Override
+		public String describe() {
+			return "smoke tests";
+		}
+	};
+
+	private static Result run(JUnitCore core, Class<?> type) {
+		return core.run(Request.aClass(type).sortWith(BY_NAME));
+	}
+
+	@Test public void stopsAfterFirstFailure() {
+		JUnitCore core= new JUnitCore();
+		core.setStopPolicy(StopPolicy.afterFailures(1));
+		Result result= run(core, FirstFails.class);
+		assertEquals(1, result.getRunCount());
+		assertEquals(1, result.getFailureCount());
+		assertEquals(2, result.getNotRunCount());
+		assertEquals(Description.createTestDescription(FirstFails.class, "b"),
+				result.getNotRunTests().get(0));
+	}
+
+	@Test public void runsEverythingWithoutPolicy() {
+		Result result= run(new JUnitCore(), FirstFails.class);
+		assertEquals(3, result.getRunCount());
+		assertEquals(0, result.getNotRunCount());
+	}
+
+	@Test public void stopsOnlyForSmokeFailures() {
+		JUnitCore core= new JUnitCore();
+		core.setStopPolicy(StopPolicy.afterFailureIn(SMOKE));
+		Result result= run(core, SmokeAndRegular.class);
+		assertEquals(3, result.getRunCount());
+		assertEquals(2, result.getFailureCount());
+		assertEquals(1, result.getNotRunCount());
+	}
+
+	@Test public void nextRunStartsAfresh() {
+		JUnitCore core= new JUnitCore();
+		core.setStopPolicy(StopPolicy.afterFailures(2));
+		run(core, FirstFails.class);
+		Result second= run(core, FirstFails.class);
+		assertEquals(3, second.getRunCount());
+		assertEquals(0, second.getNotRunCount());
+	}
+
+	@Test(timeout= 5000) public void cancelsParallelWork() {
+		JUnitCore core= new JUnitCore();
+		core.setStopPolicy(StopPolicy.afterFailures(1));
+		Result result= core.run(Request.classes(
+				new ParallelComputer(false, true, 1), Many.class).sortWith(
+				BY_NAME));
+		assertEquals(1, result.getFailureCount());
+		assertTrue(result.getNotRunCount() > 0);
+		assertEquals(8, result.getRunCount() + result.getNotRunCount());
+	}
+
+	@Test(expected= IllegalArgumentException.class)
+	public void failureCountMustBePositive() {
+		StopPolicy.afterFailures(0);
+	}
+}
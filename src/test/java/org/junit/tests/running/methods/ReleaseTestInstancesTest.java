@@ -0,0 +1,83 @@
+package org.junit.tests.running.methods;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.HeapRetentionListener;
+import org.junit.rules.TestName;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+public class ReleaseTestInstancesTest {
+	private static final List<Object> leaked= new ArrayList<Object>();
+
+	public static class Leaking {
+		@Rule public TestName name= new TestName();
+
+		private final byte[] fixture= new byte[1024];
+
+		private int runs;
+
+		@Test public void leaks() {
+			runs++;
+			leaked.add(this);
+		}
+	}
+
+	public static class Hoarding {
+		@Test public void hoards() {
+			leaked.add(new byte[8 * 1024 * 1024]);
+		}
+
+		@Test public void keepsNothing() {
+			byte[] garbage= new byte[1024 * 1024];
+			assertEquals(0, garbage[0]);
+		}
+	}
+
+	@Before public void clear() {
+		leaked.clear();
+	}
+
+	@Test public void fieldsAreClearedAfterTheTestFinishes() throws Exception {
+		BlockJUnit4ClassRunner runner= new BlockJUnit4ClassRunner(Leaking.class);
+		runner.setReleaseTestInstances(true);
+		Result result= new JUnitCore().run(runner);
+		assertTrue(result.wasSuccessful());
+		Leaking test= (Leaking) leaked.get(0);
+		assertNull(test.name);
+		assertNull(test.fixture);
+		assertEquals(1, test.runs);
+	}
+
+	@Test public void fieldsAreKeptByDefault() throws Exception {
+		new JUnitCore().run(new BlockJUnit4ClassRunner(Leaking.class));
+		Leaking test= (Leaking) leaked.get(0);
+		assertNotNull(test.name);
+		assertNotNull(test.fixture);
+	}
+
+	@Test public void reportsTestsThatLeaveObjectsBehind() {
+		HeapRetentionListener listener= new HeapRetentionListener(4 * 1024 * 1024);
+		JUnitCore core= new JUnitCore();
+		core.addListener(listener);
+		core.run(Hoarding.class);
+		Map<Description, Long> retained= listener.getRetained();
+		assertTrue(retained.containsKey(Description.createTestDescription(
+				Hoarding.class, "hoards")));
+		assertFalse(retained.containsKey(Description.createTestDescription(
+				Hoarding.class, "keepsNothing")));
+	}
+}
@@ -10,12 +10,22 @@ import static org.junit.matchers.JUnitMatchers.containsString;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.JUnit4TestAdapter;
 import junit.framework.TestResult;
 import org.junit.After;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.internal.runners.statements.ThreadDump;
+import org.junit.rules.MethodRule;
+import org.junit.rules.Timeout;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
 
@@ -167,4 +177,113 @@ public class TimeoutTest {
 		JUnitCore.runClasses(WillTimeOut.class);
 		assertThat(WillTimeOut.afterWasCalled, is(true));
 	}
+
+	static public class UsesThreadLocals {
+		static final ThreadLocal<String> local= new ThreadLocal<String>();
+
+		static final List<String> seen= Collections.synchronizedList(new ArrayList<String>());
+
+		@Test(timeout= 1000) public void a() { seen.add(local.get()); }
+		@Test(timeout= 1000) public void b() { seen.add(local.get()); }
+	}
+
+	@Test public void timedTestsRunOnTheCallingThread() {
+		UsesThreadLocals.seen.clear();
+		UsesThreadLocals.local.set("caller");
+		try {
+			assertTrue(JUnitCore.runClasses(UsesThreadLocals.class).wasSuccessful());
+		} finally {
+			UsesThreadLocals.local.remove();
+		}
+		assertEquals(Arrays.asList("caller", "caller"), UsesThreadLocals.seen);
+	}
+
+	static public class IgnoresInterrupt {
+		@Test(timeout= 50) public void sleep() {
+			try {
+				Thread.sleep(10000);
+			} catch (InterruptedException e) {
+				// ignore, and still finish
+			}
+		}
+	}
+
+	@Test public void callerIsNotLeftInterrupted() {
+		assertEquals(1, JUnitCore.runClasses(IgnoresInterrupt.class).getFailureCount());
+		assertTrue(!Thread.interrupted());
+	}
+
+	static public class SleepsTooLong {
+		static final CountDownLatch interrupted= new CountDownLatch(1);
+
+		@Test(timeout= 50) public void sleep() {
+			try {
+				Thread.sleep(10000);
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+		}
+	}
+
+	@Test public void timedOutTestIsInterrupted() throws InterruptedException {
+		Result result= JUnitCore.runClasses(SleepsTooLong.class);
+		assertEquals(1, result.getFailureCount());
+		assertTrue(SleepsTooLong.interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	static public class Deadlocks {
+		static final List<Thread> threads= new ArrayList<Thread>();
+
+		@Rule public MethodRule timeout= new Timeout(200, true);
+
+		private static Thread lockBoth(final Object first, final Object second,
+				final CountDownLatch bothLocked) {
+			Thread thread= new Thread("deadlocked") {
+				@Override
+				public void run() {
+					synchronized (first) {
+						bothLocked.countDown();
+						try {
+							bothLocked.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						synchronized (second) {
+							fail("deadlock expected");
+						}
+					}
+				}
+			};
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+			return thread;
+		}
+
+		@Test public void hang() throws InterruptedException {
+			Object a= new Object();
+			Object b= new Object();
+			CountDownLatch bothLocked= new CountDownLatch(2);
+			lockBoth(a, b, bothLocked);
+			lockBoth(b, a, bothLocked).join();
+		}
+	}
+
+	@Test public void timeoutCanAttachThreadDumpWithDeadlocks() {
+		Deadlocks.threads.clear();
+		Result result= JUnitCore.runClasses(Deadlocks.class);
+		assertEquals(1, result.getFailureCount());
+		Throwable exception= result.getFailures().get(0).getException();
+		assertTrue(exception.getMessage().contains("test timed out after 200 milliseconds"));
+		ThreadDump dump= (ThreadDump) exception.getCause();
+		List<Long> deadlocked= new ArrayList<Long>();
+		for (long each : dump.getDeadlockedThreadIds())
+			deadlocked.add(each);
+		for (Thread each : Deadlocks.threads)
+			assertTrue(deadlocked.contains(each.getId()));
+		assertThat(dump.getMessage(), containsString("\"deadlocked\""));
+		assertThat(dump.getMessage(), containsString("owned by"));
+		assertThat(dump.getMessage(), containsString("DEADLOCKED"));
+		assertThat(result.getFailures().get(0).getTrace(), containsString("Full thread dump"));
+	}
 }